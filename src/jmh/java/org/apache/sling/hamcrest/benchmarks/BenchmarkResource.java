@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.api.resource.AbstractResource;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceMetadata;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
+
+/**
+ * Plain in-memory resource used as benchmark fixture, so that the measurements are not dominated by a resource
+ * provider.
+ */
+final class BenchmarkResource extends AbstractResource {
+
+    private final String path;
+    private final String resourceType;
+    private final String resourceSuperType;
+    private final ValueMap properties;
+    private final List<Resource> children = new ArrayList<>();
+    private final ResourceMetadata metadata = new ResourceMetadata();
+
+    BenchmarkResource(String path, String resourceType, String resourceSuperType, Map<String, Object> properties) {
+        this.path = path;
+        this.resourceType = resourceType;
+        this.resourceSuperType = resourceSuperType;
+        this.properties = new ValueMapDecorator(new HashMap<>(properties));
+    }
+
+    BenchmarkResource(String path) {
+        this(path, "benchmark/type", "benchmark/base", Map.of());
+    }
+
+    /**
+     * Creates a resource with {@code fanOut} children named {@code child0} to {@code child<fanOut-1>}.
+     * @param path the path of the parent
+     * @param fanOut the number of children
+     * @return the parent resource
+     */
+    static BenchmarkResource withChildren(String path, int fanOut) {
+        BenchmarkResource parent = new BenchmarkResource(path);
+        for (int i = 0; i < fanOut; i++) {
+            parent.children.add(new BenchmarkResource(path + "/child" + i));
+        }
+        return parent;
+    }
+
+    /**
+     * Creates {@code count} sibling resources below {@code parentPath}.
+     * @param parentPath the common parent path
+     * @param count the number of resources
+     * @return the resources
+     */
+    static List<Resource> list(String parentPath, int count) {
+        List<Resource> resources = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            resources.add(new BenchmarkResource(parentPath + "/item" + i));
+        }
+        return resources;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    @Override
+    public String getResourceSuperType() {
+        return resourceSuperType;
+    }
+
+    @Override
+    public boolean isResourceType(String type) {
+        return type.equals(resourceType) || type.equals(resourceSuperType);
+    }
+
+    @Override
+    public Iterator<Resource> listChildren() {
+        return children.iterator();
+    }
+
+    @Override
+    public boolean hasChildren() {
+        return !children.isEmpty();
+    }
+
+    @Override
+    public ValueMap getValueMap() {
+        return properties;
+    }
+
+    @Override
+    public ResourceMetadata getResourceMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public ResourceResolver getResourceResolver() {
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "BenchmarkResource, path=" + path;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.hamcrest.ResourceMatchers;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link ResourceMatchers#hasChildren(String...)}, {@link ResourceMatchers#containsChildren(String...)}
+ * and {@link ResourceMatchers#containsChildrenInAnyOrder(String...)}.
+ *
+ * <p>The {@code *Mismatch} benchmarks measure a failing assertion, i.e. {@code matches()} followed by
+ * {@code describeMismatch()}, as done by {@code MatcherAssert.assertThat}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceChildrenMatcherBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int fanOut;
+
+    private Resource parent;
+    private Matcher<Resource> hasChildren;
+    private Matcher<Resource> containsChildren;
+    private Matcher<Resource> containsChildrenInAnyOrder;
+    private Matcher<Resource> hasChildrenMissing;
+    private Matcher<Resource> containsChildrenMissing;
+    private Matcher<Resource> containsChildrenInAnyOrderMissing;
+
+    @Setup
+    public void setUp() {
+        parent = BenchmarkResource.withChildren("/content/parent", fanOut);
+
+        String[] names = new String[fanOut];
+        String[] reversedNames = new String[fanOut];
+        for (int i = 0; i < fanOut; i++) {
+            names[i] = "child" + i;
+            reversedNames[fanOut - 1 - i] = names[i];
+        }
+        String[] namesWithMissing = names.clone();
+        namesWithMissing[fanOut - 1] = "missing";
+
+        hasChildren = ResourceMatchers.hasChildren(names[0], names[fanOut / 2], names[fanOut - 1]);
+        containsChildren = ResourceMatchers.containsChildren(names);
+        containsChildrenInAnyOrder = ResourceMatchers.containsChildrenInAnyOrder(reversedNames);
+        hasChildrenMissing = ResourceMatchers.hasChildren(names[0], "missing");
+        containsChildrenMissing = ResourceMatchers.containsChildren(namesWithMissing);
+        containsChildrenInAnyOrderMissing = ResourceMatchers.containsChildrenInAnyOrder(namesWithMissing);
+    }
+
+    @Benchmark
+    public boolean hasChildren() {
+        return hasChildren.matches(parent);
+    }
+
+    @Benchmark
+    public boolean containsChildren() {
+        return containsChildren.matches(parent);
+    }
+
+    @Benchmark
+    public boolean containsChildrenInAnyOrder() {
+        return containsChildrenInAnyOrder.matches(parent);
+    }
+
+    @Benchmark
+    public Description hasChildrenMismatch() {
+        return mismatch(hasChildrenMissing, parent);
+    }
+
+    @Benchmark
+    public Description containsChildrenMismatch() {
+        return mismatch(containsChildrenMissing, parent);
+    }
+
+    @Benchmark
+    public Description containsChildrenInAnyOrderMismatch() {
+        return mismatch(containsChildrenInAnyOrderMissing, parent);
+    }
+
+    static <T> Description mismatch(Matcher<? super T> matcher, T item) {
+        Description description = new StringDescription();
+        if (!matcher.matches(item)) {
+            matcher.describeMismatch(item, description);
+        }
+        return description;
+    }
+}
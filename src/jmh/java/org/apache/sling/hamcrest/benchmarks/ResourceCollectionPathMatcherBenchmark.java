@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.benchmarks;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.hamcrest.ResourceCollectionMatchers;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link ResourceCollectionMatchers#paths(String...)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceCollectionPathMatcherBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    private List<Resource> resources;
+    private Matcher<Collection<Resource>> paths;
+    private Matcher<Collection<Resource>> pathsMismatch;
+
+    @Setup
+    public void setUp() {
+        resources = BenchmarkResource.list("/content/list", size);
+        String[] expectedPaths = new String[size];
+        for (int i = 0; i < size; i++) {
+            expectedPaths[i] = resources.get(i).getPath();
+        }
+        paths = ResourceCollectionMatchers.paths(expectedPaths);
+        expectedPaths[size - 1] = "/content/other";
+        pathsMismatch = ResourceCollectionMatchers.paths(expectedPaths);
+    }
+
+    @Benchmark
+    public boolean paths() {
+        return paths.matches(resources);
+    }
+
+    @Benchmark
+    public Description pathsMismatch() {
+        return ResourceChildrenMatcherBenchmark.mismatch(pathsMismatch, resources);
+    }
+}
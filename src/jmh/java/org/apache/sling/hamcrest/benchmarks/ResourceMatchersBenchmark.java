@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.hamcrest.ResourceMatchers;
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the single-value factories of {@link ResourceMatchers}, i.e. those that neither depend on the
+ * number of children nor the number of properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceMatchersBenchmark {
+
+    private Resource resource;
+    private Matcher<Resource> path;
+    private Matcher<Resource> name;
+    private Matcher<Resource> resourceType;
+    private Matcher<Resource> resourceTypeOrDerived;
+
+    @Setup
+    public void setUp() {
+        resource = new BenchmarkResource("/content/site/en/page");
+        path = ResourceMatchers.path("/content/site/en/page");
+        name = ResourceMatchers.name("page");
+        resourceType = ResourceMatchers.resourceType("benchmark/type");
+        resourceTypeOrDerived = ResourceMatchers.resourceTypeOrDerived("benchmark/base");
+    }
+
+    @Benchmark
+    public boolean path() {
+        return path.matches(resource);
+    }
+
+    @Benchmark
+    public boolean name() {
+        return name.matches(resource);
+    }
+
+    @Benchmark
+    public boolean resourceType() {
+        return resourceType.matches(resource);
+    }
+
+    @Benchmark
+    public boolean resourceTypeOrDerived() {
+        return resourceTypeOrDerived.matches(resource);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.hamcrest.ResourceMatchers;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link ResourceMatchers#props(Map)}, {@link ResourceMatchers#props(Object...)} and
+ * {@link ResourceMatchers#nameAndProps(String, Map)}, including multi-value properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourcePropertiesMatcherBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int propertyCount;
+
+    @Param({"16"})
+    public int arrayLength;
+
+    private Resource resource;
+    private Object[] expectedKeyValues;
+    private Matcher<Resource> props;
+    private Matcher<Resource> nameAndProps;
+    private Matcher<Resource> propsMismatch;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> actual = new HashMap<>();
+        Map<String, Object> expected = new HashMap<>();
+        expectedKeyValues = new Object[propertyCount * 2];
+        for (int i = 0; i < propertyCount; i++) {
+            String name = "prop" + i;
+            Object value;
+            switch (i % 4) {
+                case 0:
+                    value = "value" + i;
+                    break;
+                case 1:
+                    value = (long) i;
+                    break;
+                case 2:
+                    value = stringArray(i);
+                    break;
+                default:
+                    value = longArray(i);
+                    break;
+            }
+            actual.put(name, value);
+            expected.put(name, copy(value));
+            expectedKeyValues[i * 2] = name;
+            expectedKeyValues[i * 2 + 1] = expected.get(name);
+        }
+        resource = new BenchmarkResource("/content/resource", "benchmark/type", null, actual);
+
+        Map<String, Object> mismatching = new HashMap<>(expected);
+        mismatching.put("prop" + (propertyCount - 1), "other");
+
+        props = ResourceMatchers.props(expected);
+        nameAndProps = ResourceMatchers.nameAndProps("resource", expected);
+        propsMismatch = ResourceMatchers.props(mismatching);
+    }
+
+    private String[] stringArray(int seed) {
+        String[] array = new String[arrayLength];
+        for (int i = 0; i < arrayLength; i++) {
+            array[i] = "item" + seed + "-" + i;
+        }
+        return array;
+    }
+
+    private long[] longArray(int seed) {
+        long[] array = new long[arrayLength];
+        for (int i = 0; i < arrayLength; i++) {
+            array[i] = seed * 31L + i;
+        }
+        return array;
+    }
+
+    private static Object copy(Object value) {
+        if (value instanceof String[]) {
+            return ((String[]) value).clone();
+        }
+        if (value instanceof long[]) {
+            return ((long[]) value).clone();
+        }
+        return value;
+    }
+
+    @Benchmark
+    public boolean props() {
+        return props.matches(resource);
+    }
+
+    @Benchmark
+    public boolean nameAndProps() {
+        return nameAndProps.matches(resource);
+    }
+
+    @Benchmark
+    public Matcher<Resource> propsVarargsFactory() {
+        return ResourceMatchers.props(expectedKeyValues);
+    }
+
+    @Benchmark
+    public boolean propsVarargs() {
+        return ResourceMatchers.props(expectedKeyValues).matches(resource);
+    }
+
+    @Benchmark
+    public Description propsMismatch() {
+        return ResourceChildrenMatcherBenchmark.mismatch(propsMismatch, resource);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Matcher;
+
+/**
+ * Evaluates matchers against many resources, e.g. for validating the content of thousands of pages, without stopping
+ * at the first mismatch.
+ *
+ * <p>Each resource is evaluated against all matchers, and each result is streamed to an optional sink as a
+ * {@link MatchResult}. The returned {@link MatchReport} only aggregates counts and timings, so the resources are not
+ * kept in memory unless the sink keeps them.</p>
+ * <pre>
+ * MatchReport report = BatchResourceMatcher.of(resourceType("my/page"), props("jcr:title", "Home"))
+ *         .withParallelism(4)
+ *         .evaluate(pages, result -&gt; {
+ *             if (!result.isPassed()) {
+ *                 log.warn("{}: {}", result.getPath(), result.getMismatchDescription());
+ *             }
+ *         });
+ * </pre>
+ *
+ * <p>With a parallelism greater than 1 the resources are evaluated concurrently, which requires resources and
+ * matchers that can be used from several threads. The sink is never called concurrently, but in no particular
+ * order. Instances are immutable.</p>
+ *
+ * @since 1.2.0
+ */
+public final class BatchResourceMatcher {
+
+    /**
+     * Number of resources which may be waiting for evaluation per worker thread.
+     */
+    static final int QUEUED_RESOURCES_PER_THREAD = 16;
+
+    private final List<Matcher<? super Resource>> matchers;
+    private final int parallelism;
+
+    private BatchResourceMatcher(List<Matcher<? super Resource>> matchers, int parallelism) {
+        this.matchers = matchers;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param matchers the matchers to evaluate for each resource, at least one
+     * @return a new instance evaluating the resources sequentially in the calling thread
+     */
+    @SafeVarargs
+    public static BatchResourceMatcher of(Matcher<? super Resource>... matchers) {
+        if (matchers == null || matchers.length == 0) {
+            throw new IllegalArgumentException("matchers is null or empty");
+        }
+        List<Matcher<? super Resource>> list = new ArrayList<>(matchers.length);
+        for (Matcher<? super Resource> matcher : matchers) {
+            if (matcher == null) {
+                throw new IllegalArgumentException("matcher is null");
+            }
+            list.add(matcher);
+        }
+        return new BatchResourceMatcher(Collections.unmodifiableList(list), 1);
+    }
+
+    /**
+     * @param parallelism the number of threads evaluating the resources, 1 to evaluate in the calling thread
+     * @return a new instance with the given parallelism
+     */
+    public BatchResourceMatcher withParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism is not positive");
+        }
+        return new BatchResourceMatcher(matchers, parallelism);
+    }
+
+    /**
+     * @param resources the resources to evaluate
+     * @return the aggregated report
+     */
+    public MatchReport evaluate(Iterable<? extends Resource> resources) {
+        return evaluate(resources, result -> {});
+    }
+
+    /**
+     * @param resources the resources to evaluate
+     * @param sink receives the result of every matcher for every resource
+     * @return the aggregated report
+     */
+    public MatchReport evaluate(Iterable<? extends Resource> resources, Consumer<? super MatchResult> sink) {
+        if (resources == null) {
+            throw new IllegalArgumentException("resources is null");
+        }
+        return evaluate(resources.iterator(), sink);
+    }
+
+    /**
+     * @param resources the resources to evaluate, consumed while evaluating
+     * @param sink receives the result of every matcher for every resource
+     * @return the aggregated report
+     */
+    public MatchReport evaluate(Iterator<? extends Resource> resources, Consumer<? super MatchResult> sink) {
+        if (resources == null) {
+            throw new IllegalArgumentException("resources is null");
+        }
+        if (sink == null) {
+            throw new IllegalArgumentException("sink is null");
+        }
+        MatchStatistics statistics = new MatchStatistics(matchers.size());
+        long start = System.nanoTime();
+        try (BoundedExecutor executor = BoundedExecutor.withPlatformThreads(
+                parallelism, parallelism * QUEUED_RESOURCES_PER_THREAD, "sling-hamcrest-batch")) {
+            while (resources.hasNext()) {
+                Resource resource = resources.next();
+                executor.execute(() -> evaluate(resource, statistics, sink));
+            }
+            executor.awaitCompletion();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evaluating resources", ex);
+        }
+        return statistics.toReport(matchers, System.nanoTime() - start);
+    }
+
+    private void evaluate(Resource resource, MatchStatistics statistics, Consumer<? super MatchResult> sink) {
+        boolean allPassed = true;
+        for (int i = 0; i < matchers.size(); i++) {
+            MatchResult result = MatchResult.evaluate(resource, matchers.get(i));
+            statistics.record(i, result);
+            allPassed &= result.isPassed();
+            synchronized (sink) {
+                sink.accept(result);
+            }
+        }
+        statistics.recordResource(allPassed);
+    }
+}
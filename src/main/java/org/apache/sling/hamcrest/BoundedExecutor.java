@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs tasks on an executor with a bounded number of tasks in flight: submitting blocks while the bound is reached,
+ * so producers can never run ahead of the workers by more than the bound.
+ *
+ * <p>Without executor, tasks run in the submitting thread.</p>
+ */
+final class BoundedExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Semaphore permits;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * @param executor the executor, shut down on {@link #close()}, or {@code null} to run tasks in the caller thread
+     * @param maxInFlight the maximum number of submitted but not yet completed tasks
+     */
+    BoundedExecutor(ExecutorService executor, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight is not positive");
+        }
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * @param threads the number of worker threads, 1 to run tasks in the caller thread
+     * @param maxInFlight the maximum number of submitted but not yet completed tasks
+     * @param name the prefix of the thread names
+     * @return a new instance using daemon platform threads
+     */
+    static BoundedExecutor withPlatformThreads(int threads, int maxInFlight, String name) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads is not positive");
+        }
+        if (threads == 1) {
+            return new BoundedExecutor(null, maxInFlight);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new BoundedExecutor(Executors.newFixedThreadPool(threads, factory), maxInFlight);
+    }
+
+    /**
+     * @param maxInFlight the maximum number of submitted but not yet completed tasks, which bounds the number of
+     *     concurrently running virtual threads
+     * @param name the prefix of the thread names, used if virtual threads are not available
+     * @return a new instance using one virtual thread per task if supported by the Java runtime, otherwise daemon
+     *     platform threads, one per available processor
+     */
+    static BoundedExecutor withVirtualThreads(int maxInFlight, String name) {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        if (executor == null) {
+            return withPlatformThreads(Runtime.getRuntime().availableProcessors(), maxInFlight, name);
+        }
+        return new BoundedExecutor(executor, maxInFlight);
+    }
+
+    /**
+     * Virtual threads are only available as of Java 21, so they are looked up reflectively.
+     * @return a new virtual thread per task executor or {@code null} if not supported
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Submits a task, blocking while the maximum number of tasks is in flight.
+     * @param task the task
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void execute(Runnable task) throws InterruptedException {
+        rethrowFailure();
+        if (executor == null) {
+            task.run();
+            return;
+        }
+        permits.acquire();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException | Error ex) {
+                    failure.compareAndSet(null, ex);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Waits until all submitted tasks are completed.
+     * @throws InterruptedException if interrupted while waiting
+     * @throws RuntimeException the first exception thrown by a task
+     */
+    void awaitCompletion() throws InterruptedException {
+        permits.acquire(maxInFlight);
+        permits.release(maxInFlight);
+        rethrowFailure();
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void rethrowFailure() {
+        Throwable throwable = failure.get();
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        } else if (throwable != null) {
+            throw (RuntimeException) throwable;
+        }
+    }
+}
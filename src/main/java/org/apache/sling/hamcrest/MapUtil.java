@@ -20,9 +20,10 @@ package org.apache.sling.hamcrest;
 
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.sling.hamcrest.matchers.CompactPropertyMap;
+
 /**
  * Map util methods.
  */
@@ -33,25 +34,20 @@ final class MapUtil {
     }
 
     /**
-     * Convert key/value pairs to map
-     * @param args Key/value pairs
+     * Convert key/value pairs to an immutable map
+     * @param args Key/value pairs, or a single map which is copied
      * @return Map
      */
-    @SuppressWarnings("unchecked")
     public static Map<String, Object> toMap(Object... args) {
         if (args == null || args.length == 0) {
             return Collections.emptyMap();
         }
         if (args.length == 1 && args[0] instanceof Map) {
-            return (Map<String, Object>) args[0];
+            return CompactPropertyMap.copyOf((Map<?, ?>) args[0]);
         }
         if (args.length % 2 != 0) {
             throw new IllegalArgumentException("args must be an even number of name/values:" + Arrays.asList(args));
         }
-        final Map<String, Object> result = new HashMap<String, Object>();
-        for (int i = 0; i < args.length; i += 2) {
-            result.put(args[i].toString(), args[i + 1]);
-        }
-        return result;
+        return CompactPropertyMap.of(args);
     }
 }
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+/**
+ * Aggregated outcome of a {@link BatchResourceMatcher} or {@link ResourceValidationEngine} run: the number of
+ * evaluated resources, how many of them passed all matchers, and pass rates and timings per matcher. It does not
+ * refer to any of the evaluated resources.
+ *
+ * @since 1.2.0
+ */
+public final class MatchReport {
+
+    private final long resources;
+    private final long passedResources;
+    private final long elapsedNanos;
+    private final List<MatcherStatistics> matcherStatistics;
+
+    MatchReport(long resources, long passedResources, long elapsedNanos, List<MatcherStatistics> matcherStatistics) {
+        this.resources = resources;
+        this.passedResources = passedResources;
+        this.elapsedNanos = elapsedNanos;
+        this.matcherStatistics = List.copyOf(matcherStatistics);
+    }
+
+    /**
+     * @return the number of evaluated resources
+     */
+    public long getResourceCount() {
+        return resources;
+    }
+
+    /**
+     * @return the number of resources matching all matchers
+     */
+    public long getPassedCount() {
+        return passedResources;
+    }
+
+    /**
+     * @return the number of resources not matching at least one matcher
+     */
+    public long getFailedCount() {
+        return resources - passedResources;
+    }
+
+    /**
+     * @return {@code true} if all resources matched all matchers
+     */
+    public boolean isPassed() {
+        return passedResources == resources;
+    }
+
+    /**
+     * @return the wall clock time of the whole run, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the statistics per matcher, in the order of the matchers
+     */
+    public List<MatcherStatistics> getMatcherStatistics() {
+        return matcherStatistics;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(
+                Locale.ROOT,
+                "%d of %d resources passed in %.3f ms",
+                passedResources,
+                resources,
+                elapsedNanos / 1e6));
+        for (MatcherStatistics statistics : matcherStatistics) {
+            report.append(System.lineSeparator()).append("  ").append(statistics);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Pass rate and timings of a single matcher.
+     */
+    public static final class MatcherStatistics {
+
+        private final Matcher<? super Resource> matcher;
+        private final long passed;
+        private final long failed;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        MatcherStatistics(Matcher<? super Resource> matcher, long passed, long failed, long totalNanos, long maxNanos) {
+            this.matcher = matcher;
+            this.passed = passed;
+            this.failed = failed;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public Matcher<? super Resource> getMatcher() {
+            return matcher;
+        }
+
+        public long getPassedCount() {
+            return passed;
+        }
+
+        public long getFailedCount() {
+            return failed;
+        }
+
+        /**
+         * @return the share of passed resources between 0 and 1, 1 if no resource was evaluated
+         */
+        public double getPassRate() {
+            long total = passed + failed;
+            return total == 0 ? 1.0 : (double) passed / total;
+        }
+
+        /**
+         * @return the total time spent in the matcher, in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return the longest time spent in the matcher for a single resource, in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * @return the average time spent in the matcher per resource, in nanoseconds
+         */
+        public double getAverageNanos() {
+            long total = passed + failed;
+            return total == 0 ? 0.0 : (double) totalNanos / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    Locale.ROOT,
+                    "%s: %d passed, %d failed (%.1f%%), avg %.3f ms, max %.3f ms",
+                    StringDescription.toString(matcher),
+                    passed,
+                    failed,
+                    getPassRate() * 100,
+                    getAverageNanos() / 1e6,
+                    maxNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+/**
+ * The result of evaluating one matcher against one resource, as streamed by {@link BatchResourceMatcher}.
+ *
+ * <p>The mismatch description is only rendered when requested, so results which are just counted or filtered are
+ * cheap.</p>
+ *
+ * @since 1.2.0
+ */
+public final class MatchResult {
+
+    private final Resource resource;
+    private final Matcher<? super Resource> matcher;
+    private final boolean passed;
+    private final long nanos;
+    private final RuntimeException failure;
+    private String mismatchDescription;
+
+    MatchResult(
+            Resource resource,
+            Matcher<? super Resource> matcher,
+            boolean passed,
+            long nanos,
+            RuntimeException failure) {
+        this.resource = resource;
+        this.matcher = matcher;
+        this.passed = passed;
+        this.nanos = nanos;
+        this.failure = failure;
+    }
+
+    /**
+     * Evaluates a matcher, reporting exceptions thrown by it as failed result.
+     * @param resource the resource
+     * @param matcher the matcher
+     * @return the result
+     */
+    static MatchResult evaluate(Resource resource, Matcher<? super Resource> matcher) {
+        boolean passed;
+        RuntimeException failure = null;
+        long start = System.nanoTime();
+        try {
+            passed = matcher.matches(resource);
+        } catch (RuntimeException ex) {
+            passed = false;
+            failure = ex;
+        }
+        return new MatchResult(resource, matcher, passed, System.nanoTime() - start, failure);
+    }
+
+    public Resource getResource() {
+        return resource;
+    }
+
+    public String getPath() {
+        return resource.getPath();
+    }
+
+    public Matcher<? super Resource> getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * @return {@code true} if the resource matched
+     */
+    public boolean isPassed() {
+        return passed;
+    }
+
+    /**
+     * @return the time spent for matching, in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return the exception thrown by the matcher or {@code null}, the result is failed if there is one
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Renders the mismatch description on first access. For matchers which keep per-thread state about the last
+     * mismatch, rendering in the thread which evaluated the resource avoids evaluating it again.
+     * @return the mismatch description or {@code null} if the resource matched
+     */
+    public synchronized String getMismatchDescription() {
+        if (passed) {
+            return null;
+        }
+        if (mismatchDescription == null) {
+            if (failure != null) {
+                mismatchDescription = "threw " + failure;
+            } else {
+                StringDescription description = new StringDescription();
+                matcher.describeMismatch(resource, description);
+                mismatchDescription = description.toString();
+            }
+        }
+        return mismatchDescription;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(getPath()).append(passed ? ": passed " : ": failed ");
+        result.append(StringDescription.toString(matcher));
+        if (!passed) {
+            result.append(", but ").append(getMismatchDescription());
+        }
+        return result.toString();
+    }
+}
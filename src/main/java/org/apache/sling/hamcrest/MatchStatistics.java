@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Matcher;
+
+/**
+ * Thread-safe aggregation of {@link MatchResult}s into a {@link MatchReport}, with one slot per matcher.
+ */
+final class MatchStatistics {
+
+    private final LongAdder resources = new LongAdder();
+    private final LongAdder passedResources = new LongAdder();
+    private final LongAdder[] passed;
+    private final LongAdder[] failed;
+    private final LongAdder[] totalNanos;
+    private final LongAccumulator[] maxNanos;
+
+    MatchStatistics(int matchers) {
+        passed = new LongAdder[matchers];
+        failed = new LongAdder[matchers];
+        totalNanos = new LongAdder[matchers];
+        maxNanos = new LongAccumulator[matchers];
+        for (int i = 0; i < matchers; i++) {
+            passed[i] = new LongAdder();
+            failed[i] = new LongAdder();
+            totalNanos[i] = new LongAdder();
+            maxNanos[i] = new LongAccumulator(Math::max, 0L);
+        }
+    }
+
+    void record(int matcher, MatchResult result) {
+        (result.isPassed() ? passed : failed)[matcher].increment();
+        totalNanos[matcher].add(result.getNanos());
+        maxNanos[matcher].accumulate(result.getNanos());
+    }
+
+    void recordResource(boolean allPassed) {
+        resources.increment();
+        if (allPassed) {
+            passedResources.increment();
+        }
+    }
+
+    MatchReport toReport(List<Matcher<? super Resource>> matchers, long elapsedNanos) {
+        List<MatchReport.MatcherStatistics> matcherStatistics = new ArrayList<>();
+        for (int i = 0; i < matchers.size(); i++) {
+            matcherStatistics.add(new MatchReport.MatcherStatistics(
+                    matchers.get(i), passed[i].sum(), failed[i].sum(), totalNanos[i].sum(), maxNanos[i].get()));
+        }
+        return new MatchReport(resources.sum(), passedResources.sum(), elapsedNanos, matcherStatistics);
+    }
+}
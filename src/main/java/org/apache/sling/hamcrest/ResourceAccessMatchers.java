@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.hamcrest.matchers.ResourceAccessCounter;
+import org.apache.sling.hamcrest.matchers.ResourceAccessMatcher;
+import org.hamcrest.Matcher;
+
+/**
+ * A collection of {@code Matcher}s asserting how often an operation calls {@link Resource} and
+ * {@link ResourceResolver} methods.
+ *
+ * <p>The matched resource or resource resolver is wrapped with a {@link ResourceAccessCounter} and passed to the
+ * operation, the matcher then compares the counted calls with the budget.</p>
+ * <pre>
+ * assertThat(page, accessesAtMost("listChildren", 10, component::render));
+ * assertThat(resolver, resolvesAtMost(5, r -&gt; navigation.build(r, "/content/site")));
+ * </pre>
+ *
+ * @since 1.2.0
+ */
+public final class ResourceAccessMatchers {
+
+    private ResourceAccessMatchers() {
+        // static methods only
+    }
+
+    /**
+     * Matches resources for which the given operation calls the given {@link Resource} method at most
+     * {@code maxCalls} times, on the resource itself or on any resource reached from it.
+     *
+     * @param method the name of the {@link Resource} method, e.g. {@code getChild}
+     * @param maxCalls the maximum number of calls
+     * @param operation the operation to run with the resource
+     * @return a matcher instance
+     */
+    public static Matcher<Resource> accessesAtMost(String method, long maxCalls, Consumer<? super Resource> operation) {
+        return ResourceAccessMatcher.resourceCalls(Collections.singletonList(method), maxCalls, operation);
+    }
+
+    /**
+     * Matches resource resolvers for which the given operation resolves resources at most {@code maxCalls} times,
+     * counting the calls of {@link ResourceResolver#getResource(String)},
+     * {@link ResourceResolver#getResource(Resource, String)} and the {@code resolve} methods.
+     *
+     * @param maxCalls the maximum number of calls
+     * @param operation the operation to run with the resource resolver
+     * @return a matcher instance
+     */
+    public static Matcher<ResourceResolver> resolvesAtMost(
+            long maxCalls, Consumer<? super ResourceResolver> operation) {
+        return ResourceAccessMatcher.resolverCalls(Arrays.asList("getResource", "resolve"), maxCalls, operation);
+    }
+
+    /**
+     * Matches resource resolvers for which the given operation calls the given {@link ResourceResolver} method at
+     * most {@code maxCalls} times.
+     *
+     * @param method the name of the {@link ResourceResolver} method, e.g. {@code findResources}
+     * @param maxCalls the maximum number of calls
+     * @param operation the operation to run with the resource resolver
+     * @return a matcher instance
+     */
+    public static Matcher<ResourceResolver> callsAtMost(
+            String method, long maxCalls, Consumer<? super ResourceResolver> operation) {
+        return ResourceAccessMatcher.resolverCalls(Collections.singletonList(method), maxCalls, operation);
+    }
+}
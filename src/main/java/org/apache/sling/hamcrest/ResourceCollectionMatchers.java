@@ -22,7 +22,10 @@ import java.util.Arrays;
 import java.util.Collection;
 
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.hamcrest.matchers.PathPattern;
 import org.apache.sling.hamcrest.matchers.ResourceCollectionPathMatcher;
+import org.apache.sling.hamcrest.matchers.ResourceCollectionPathSetMatcher;
+import org.apache.sling.hamcrest.matchers.ResourcePathsPatternMatcher;
 import org.hamcrest.Matcher;
 
 /**
@@ -42,4 +45,89 @@ public final class ResourceCollectionMatchers {
     public static Matcher<Collection<Resource>> paths(String... paths) {
         return new ResourceCollectionPathMatcher(Arrays.asList(paths));
     }
+
+    /**
+     * Asserts that the given resource collection has resources with exactly the given paths in any order. Each path
+     * must occur exactly once, which is checked in a single pass using a hash set of the expected paths.
+     * @param paths the expected resource paths
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Collection<Resource>> pathsInAnyOrder(String... paths) {
+        return ResourceCollectionPathSetMatcher.inAnyOrder(Arrays.asList(paths));
+    }
+
+    /**
+     * Asserts that the given resource collection has resources with at least the given paths in any order.
+     * @param paths the expected resource paths
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Collection<Resource>> containsPaths(String... paths) {
+        return ResourceCollectionPathSetMatcher.containing(Arrays.asList(paths));
+    }
+
+    /**
+     * Asserts that the given resource collection has no resource with any of the given paths.
+     * @param paths the unexpected resource paths
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Collection<Resource>> doesNotContainPaths(String... paths) {
+        return ResourceCollectionPathSetMatcher.notContaining(Arrays.asList(paths));
+    }
+
+    /**
+     * Asserts that the path of every resource in the given resource collection matches the given glob, see
+     * {@link PathPattern#glob(String)}.
+     * @param glob the glob
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Collection<Resource>> allPathsMatching(String glob) {
+        return ResourcePathsPatternMatcher.collection(PathPattern.glob(glob));
+    }
+
+    /**
+     * Asserts that the path of every resource in the given resource collection matches the given pattern.
+     * @param pattern the compiled pattern
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Collection<Resource>> allPathsMatching(PathPattern pattern) {
+        return ResourcePathsPatternMatcher.collection(pattern);
+    }
+
+    /**
+     * Asserts that the path of no resource in the given resource collection matches the given glob, see
+     * {@link PathPattern#glob(String)}. Combine it with {@link #allPathsUnder(String...)} for checks like "under
+     * these roots, but never below a {@code jcr:content} resource".
+     * @param glob the glob
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Collection<Resource>> noPathMatching(String glob) {
+        return ResourcePathsPatternMatcher.collectionNoneMatching(PathPattern.glob(glob));
+    }
+
+    /**
+     * Asserts that the path of no resource in the given resource collection matches the given pattern.
+     * @param pattern the compiled pattern
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Collection<Resource>> noPathMatching(PathPattern pattern) {
+        return ResourcePathsPatternMatcher.collectionNoneMatching(pattern);
+    }
+
+    /**
+     * Asserts that every resource in the given resource collection is one of the given root resources or below one
+     * of them.
+     * @param roots the absolute root paths
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Collection<Resource>> allPathsUnder(String... roots) {
+        return ResourcePathsPatternMatcher.collection(PathPattern.under(roots));
+    }
 }
@@ -22,7 +22,9 @@ import java.util.Arrays;
 import java.util.Iterator;
 
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.hamcrest.matchers.PathPattern;
 import org.apache.sling.hamcrest.matchers.ResourceIteratorPathMatcher;
+import org.apache.sling.hamcrest.matchers.ResourcePathsPatternMatcher;
 import org.hamcrest.Matcher;
 
 /**
@@ -42,4 +44,58 @@ public final class ResourceIteratorMatchers {
     public static Matcher<Iterator<Resource>> paths(String... paths) {
         return new ResourceIteratorPathMatcher(Arrays.asList(paths));
     }
+
+    /**
+     * Asserts that the path of every resource in the given resource iterator matches the given glob, see
+     * {@link PathPattern#glob(String)}.
+     * @param glob the glob
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Iterator<Resource>> allPathsMatching(String glob) {
+        return ResourcePathsPatternMatcher.iterator(PathPattern.glob(glob));
+    }
+
+    /**
+     * Asserts that the path of every resource in the given resource iterator matches the given pattern.
+     * @param pattern the compiled pattern
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Iterator<Resource>> allPathsMatching(PathPattern pattern) {
+        return ResourcePathsPatternMatcher.iterator(pattern);
+    }
+
+    /**
+     * Asserts that the path of no resource in the given resource iterator matches the given glob, see
+     * {@link PathPattern#glob(String)}. Combine it with {@link #allPathsUnder(String...)} for checks like "under
+     * these roots, but never below a {@code jcr:content} resource".
+     * @param glob the glob
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Iterator<Resource>> noPathMatching(String glob) {
+        return ResourcePathsPatternMatcher.iteratorNoneMatching(PathPattern.glob(glob));
+    }
+
+    /**
+     * Asserts that the path of no resource in the given resource iterator matches the given pattern.
+     * @param pattern the compiled pattern
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Iterator<Resource>> noPathMatching(PathPattern pattern) {
+        return ResourcePathsPatternMatcher.iteratorNoneMatching(pattern);
+    }
+
+    /**
+     * Asserts that every resource in the given resource iterator is one of the given root resources or below one
+     * of them.
+     * @param roots the absolute root paths
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Iterator<Resource>> allPathsUnder(String... roots) {
+        return ResourcePathsPatternMatcher.iterator(PathPattern.under(roots));
+    }
 }
@@ -18,15 +18,32 @@
  */
 package org.apache.sling.hamcrest;
 
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.hamcrest.matchers.BinaryPropertyMatcher;
+import org.apache.sling.hamcrest.matchers.CompositeResourceMatcher;
+import org.apache.sling.hamcrest.matchers.ExpectedProperty;
+import org.apache.sling.hamcrest.matchers.ExpectedResourceTree;
+import org.apache.sling.hamcrest.matchers.IgnoredProperties;
+import org.apache.sling.hamcrest.matchers.PathPattern;
+import org.apache.sling.hamcrest.matchers.ResourceChildCountMatcher;
 import org.apache.sling.hamcrest.matchers.ResourceChildrenMatcher;
+import org.apache.sling.hamcrest.matchers.ResourceHierarchyMatcher;
 import org.apache.sling.hamcrest.matchers.ResourceNameMatcher;
 import org.apache.sling.hamcrest.matchers.ResourcePathMatcher;
+import org.apache.sling.hamcrest.matchers.ResourcePathPatternMatcher;
+import org.apache.sling.hamcrest.matchers.ResourcePropertiesExactMatcher;
 import org.apache.sling.hamcrest.matchers.ResourcePropertiesMatcher;
+import org.apache.sling.hamcrest.matchers.ResourcePropertiesMatchingMatcher;
+import org.apache.sling.hamcrest.matchers.ResourceSnapshotMatcher;
+import org.apache.sling.hamcrest.matchers.ResourceTreeMatcher;
+import org.apache.sling.hamcrest.matchers.ResourceTypeHierarchyCache;
 import org.apache.sling.hamcrest.matchers.ResourceTypeMatcher;
+import org.apache.sling.hamcrest.matchers.SameResourceTreeMatcher;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
 
@@ -80,6 +97,55 @@ public final class ResourceMatchers {
         return new ResourceChildrenMatcher(Arrays.asList(children), true, false);
     }
 
+    /**
+     * Matches resources which have exactly {@code count} children.
+     *
+     * <p>Children are only counted up to {@code count + 1}, so this is cheap even for resources with a huge number of
+     * children.</p>
+     * <pre>
+     * assertThat(resource, hasChildCount(2));
+     * </pre>
+     *
+     * @param count the expected number of children, not negative
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> hasChildCount(int count) {
+        return new ResourceChildCountMatcher(count, count);
+    }
+
+    /**
+     * Matches resources which have no more than {@code count} children.
+     *
+     * <p>Children are only counted up to {@code count + 1}, so this is cheap even for resources with a huge number of
+     * children.</p>
+     * <pre>
+     * assertThat(resource, hasAtMostChildren(100));
+     * </pre>
+     *
+     * @param count the maximum number of children, not negative
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> hasAtMostChildren(int count) {
+        return new ResourceChildCountMatcher(0, count);
+    }
+
+    /**
+     * Matches resources which don't have any children.
+     *
+     * <pre>
+     * assertThat(resource, hasNoChildren());
+     * </pre>
+     *
+     * @return a matcher instance
+     * @see Resource#hasChildren()
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> hasNoChildren() {
+        return new ResourceChildCountMatcher(0, 0);
+    }
+
     /**
      * Matches only if the resource has the given path
      *
@@ -94,6 +160,103 @@ public final class ResourceMatchers {
         return new ResourcePathMatcher(path);
     }
 
+    /**
+     * Matches only if the resource path matches the given glob, see {@link PathPattern#glob(String)}
+     *
+     * <pre>
+     * assertThat(resource, pathMatching("/content/site/*&#47;jcr:content"));
+     * </pre>
+     *
+     * @param glob the glob, not <code>null</code> or empty
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> pathMatching(String glob) {
+        return new ResourcePathPatternMatcher(PathPattern.glob(glob));
+    }
+
+    /**
+     * Matches only if the resource path matches the given pattern. Patterns are compiled once and may be shared by
+     * any number of matchers.
+     *
+     * @param pattern the compiled pattern, not <code>null</code>
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> pathMatching(PathPattern pattern) {
+        return new ResourcePathPatternMatcher(pattern);
+    }
+
+    /**
+     * Matches only if the resource is one of the given root resources or below one of them
+     *
+     * <pre>
+     * assertThat(resource, pathUnder("/content/site/en", "/content/dam/site"));
+     * </pre>
+     *
+     * @param roots the absolute root paths, not <code>null</code> or empty
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> pathUnder(String... roots) {
+        return new ResourcePathPatternMatcher(PathPattern.under(roots));
+    }
+
+    /**
+     * Matches only if the resource is a child of the resource with the given path
+     *
+     * <pre>
+     * assertThat(resource, hasParentPath("/content/site"));
+     * </pre>
+     *
+     * @param parentPath the absolute parent path, not <code>null</code>
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> hasParentPath(String parentPath) {
+        return ResourceHierarchyMatcher.parentPath(parentPath);
+    }
+
+    /**
+     * Matches only if the resource is a child of the given resource. Only the paths are compared.
+     *
+     * @param parent the parent resource, not <code>null</code>
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> isChildOf(Resource parent) {
+        if (parent == null) {
+            throw new IllegalArgumentException("parent is null");
+        }
+        return ResourceHierarchyMatcher.parentPath(parent.getPath());
+    }
+
+    /**
+     * Matches only if the resource is below the resource with the given path, at any depth
+     *
+     * <pre>
+     * assertThat(resource, isDescendantOf("/content/site"));
+     * </pre>
+     *
+     * @param ancestorPath the absolute ancestor path, not <code>null</code>
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> isDescendantOf(String ancestorPath) {
+        return ResourceHierarchyMatcher.descendantOf(ancestorPath);
+    }
+
+    /**
+     * Matches only if the resource path has the given number of segments, e.g. 2 for {@code /content/site}
+     *
+     * @param depth the depth, 0 for the root resource
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> hasDepth(int depth) {
+        return ResourceHierarchyMatcher.depth(depth);
+    }
+
     /**
      * Matches only if the resource has the given name
      *
@@ -139,6 +302,26 @@ public final class ResourceMatchers {
         return new ResourceTypeMatcher(resourceType, true);
     }
 
+    /**
+     * Matches resources with the given resource type or a resource type derived from it, like
+     * {@link #resourceTypeOrDerived(String)}, but taking the supertype chains from the given cache.
+     *
+     * <p>Sharing the cache between matchers avoids walking the same supertype hierarchy through the resource
+     * resolver for every resource.</p>
+     * <pre>
+     * ResourceTypeHierarchyCache cache = ResourceTypeHierarchyCache.forResolver(resolver);
+     * assertThat(resource, resourceTypeOrDerived("core/wcm/components/page", cache));
+     * </pre>
+     * @param resourceType the resource type to match
+     * @param cache the cache of supertype chains, only to be used with resources of a single resource resolver
+     * @return a matcher instance
+     * @since 1.2.0
+     * @see ResourceTypeHierarchyCache#forResolver(org.apache.sling.api.resource.ResourceResolver)
+     */
+    public static Matcher<Resource> resourceTypeOrDerived(String resourceType, ResourceTypeHierarchyCache cache) {
+        return new ResourceTypeMatcher(resourceType, cache);
+    }
+
     /**
      * Matches resources which has at least the specified {@code properties} defined with matching values
      *
@@ -177,6 +360,130 @@ public final class ResourceMatchers {
         return props(MapUtil.toMap(properties));
     }
 
+    /**
+     * Matches resources which have exactly the specified {@code properties} with matching values, i.e. unlike
+     * {@link #props(Map)} additional properties are not accepted
+     *
+     * @param properties the properties to match
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> propsExactly(Map<String, Object> properties) {
+        return new ResourcePropertiesExactMatcher(properties, IgnoredProperties.none());
+    }
+
+    /**
+     * Matches resources which have exactly the specified {@code properties} with matching values, apart from the
+     * ignored properties
+     *
+     * <pre>
+     * assertThat(resource, propsExactly(expectedProperties, ignoring("jcr:*", "sling:lastReplicated")));
+     * </pre>
+     *
+     * @param properties the properties to match
+     * @param ignored the properties to ignore, both expected and actual ones
+     * @return a matcher instance
+     * @see #ignoring(String...)
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> propsExactly(Map<String, Object> properties, IgnoredProperties ignored) {
+        return new ResourcePropertiesExactMatcher(properties, ignored);
+    }
+
+    /**
+     * Properties to ignore in {@link #propsExactly(Map, IgnoredProperties)}.
+     *
+     * @param patterns property names, or prefixes followed by {@code *} like {@code jcr:*}
+     * @return the ignored properties
+     * @since 1.2.0
+     */
+    public static IgnoredProperties ignoring(String... patterns) {
+        return IgnoredProperties.of(patterns);
+    }
+
+    /**
+     * Matches resources whose properties match the given property matchers. Missing properties are matched as
+     * {@code null}.
+     *
+     * <p>The value map is read once, and the mismatch description lists all mismatching properties.</p>
+     * <pre>
+     * assertThat(resource, propsMatching(Map.of(
+     *         "sling:vanityPath", matchesPattern("/[a-z-]+"),
+     *         "jcr:title", not(emptyOrNullString()))));
+     * </pre>
+     *
+     * @param matchers the matchers for the raw property values, by property name
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> propsMatching(Map<String, ? extends Matcher<?>> matchers) {
+        return ResourcePropertiesMatchingMatcher.raw(matchers);
+    }
+
+    /**
+     * Matches resources whose properties, converted to the given type with {@code ValueMap.get(name, type)}, match
+     * the given property matchers. Properties which are missing or cannot be converted are matched as {@code null}.
+     * Use {@link #propsMatching(ExpectedProperty...)} to convert the properties to different types.
+     *
+     * <pre>
+     * assertThat(resource, propsMatching(Calendar.class, Map.of(
+     *         "jcr:lastModified", greaterThan(deploymentTime))));
+     * </pre>
+     *
+     * @param type the type to convert the property values to
+     * @param matchers the matchers for the converted property values, by property name
+     * @param <T> the type of the converted property values
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static <T> Matcher<Resource> propsMatching(
+            Class<T> type, Map<String, ? extends Matcher<? super T>> matchers) {
+        return ResourcePropertiesMatchingMatcher.typed(type, matchers);
+    }
+
+    /**
+     * Matches resources whose properties match the given expected properties, each of which is matched either raw
+     * or converted to its own type with {@code ValueMap.get(name, type)}. Properties which are missing or cannot be
+     * converted are matched as {@code null}.
+     *
+     * <p>The value map is read once, and the mismatch description lists all mismatching properties.</p>
+     * <pre>
+     * assertThat(resource, propsMatching(
+     *         property("jcr:lastModified", Calendar.class, greaterThan(deploymentTime)),
+     *         property("sling:vanityPath", String.class, matchesPattern("/[a-z-]+")),
+     *         property("jcr:title", notNullValue())));
+     * </pre>
+     *
+     * @param properties the expected properties
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> propsMatching(ExpectedProperty... properties) {
+        return ResourcePropertiesMatchingMatcher.of(properties);
+    }
+
+    /**
+     * @param name the property name
+     * @param matcher the matcher for the raw property value
+     * @return the expected property for {@link #propsMatching(ExpectedProperty...)}
+     * @since 1.2.0
+     */
+    public static ExpectedProperty property(String name, Matcher<?> matcher) {
+        return ExpectedProperty.of(name, matcher);
+    }
+
+    /**
+     * @param name the property name
+     * @param type the type to convert the property value to
+     * @param matcher the matcher for the converted property value
+     * @param <T> the type of the converted property value
+     * @return the expected property for {@link #propsMatching(ExpectedProperty...)}
+     * @since 1.2.0
+     */
+    public static <T> ExpectedProperty property(String name, Class<T> type, Matcher<? super T> matcher) {
+        return ExpectedProperty.of(name, type, matcher);
+    }
+
     /**
      * Matches resources which has the given name and at least the specified {@code properties} defined with matching values
      *
@@ -217,6 +524,146 @@ public final class ResourceMatchers {
         return nameAndProps(name, MapUtil.toMap(properties));
     }
 
+    /**
+     * Matches resources which have a binary property with exactly the given content.
+     *
+     * <p>The binary is compared chunk by chunk in constant memory, stopping at the first difference.</p>
+     * <pre>
+     * assertThat(rendition.getChild("jcr:content"), binaryProperty("jcr:data", expectedBytes));
+     * </pre>
+     *
+     * @param name the name of the binary property
+     * @param expected the expected content
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> binaryProperty(String name, byte[] expected) {
+        return new BinaryPropertyMatcher(name, expected);
+    }
+
+    /**
+     * Matches resources which have a binary property with exactly the content of the given file.
+     *
+     * <p>The binary and the file are compared chunk by chunk in constant memory, stopping at the first
+     * difference.</p>
+     *
+     * @param name the name of the binary property
+     * @param expected the file with the expected content
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> binaryProperty(String name, Path expected) {
+        return new BinaryPropertyMatcher(name, expected);
+    }
+
+    /**
+     * Matches resources which have a binary property whose content has the given SHA-256 digest.
+     *
+     * <pre>
+     * assertThat(resource, binaryPropertyWithSha256("jcr:data", "e3b0c44298fc1c149afbf4c8996fb924..."));
+     * </pre>
+     *
+     * @param name the name of the binary property
+     * @param sha256 the expected digest, as 64 hexadecimal digits
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> binaryPropertyWithSha256(String name, String sha256) {
+        return BinaryPropertyMatcher.withSha256(name, sha256);
+    }
+
+    /**
+     * Matches resources against several criteria at once, evaluating each resource only once.
+     *
+     * <p>Compared to combining the individual matchers with {@link Matchers#allOf(Matcher...)}, the name, path,
+     * resource type and properties are each read only once and all failing criteria are reported in a single
+     * mismatch description. Without any criteria the matcher matches every resource.</p>
+     * <pre>
+     * assertThat(resource, resource().name("resource1").resourceType("my/app").props(expectedProperties));
+     * </pre>
+     *
+     * @return a matcher instance to be refined with further criteria
+     * @since 1.2.0
+     */
+    public static CompositeResourceMatcher resource() {
+        return new CompositeResourceMatcher();
+    }
+
+    /**
+     * Matches resources whose whole subtree corresponds to the given expected tree.
+     *
+     * <p>The subtree is validated in a single walk and all mismatches are reported, ordered by their position in
+     * the expected tree.</p>
+     * <pre>
+     * assertThat(page, hasTree(ExpectedResourceTree.node()
+     *         .resourceType("my/page")
+     *         .child("jcr:content", ExpectedResourceTree.node().props("jcr:title", "Home"))));
+     * </pre>
+     *
+     * @param expected the expected tree
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> hasTree(ExpectedResourceTree expected) {
+        return new ResourceTreeMatcher(expected);
+    }
+
+    /**
+     * Matches resources whose whole subtree corresponds to the given expected tree, validating large branches in
+     * parallel on the given pool.
+     *
+     * <p>Only use this for resources whose resource resolver may be accessed from several threads at once.</p>
+     *
+     * @param expected the expected tree
+     * @param pool the pool to use for validating large branches
+     * @return a matcher instance
+     * @see #hasTree(ExpectedResourceTree)
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> hasTree(ExpectedResourceTree expected, ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool is null");
+        }
+        return new ResourceTreeMatcher(expected, pool);
+    }
+
+    /**
+     * Matches resources whose subtree serializes to the content of the given golden file.
+     *
+     * <p>The golden file is compared as a stream without loading it completely, mismatches are described with a
+     * line diff. Run the tests with the system property {@value ResourceSnapshotMatcher#UPDATE_PROPERTY} set to
+     * {@code true} to create or update the golden files instead.</p>
+     * <pre>
+     * assertThat(page, matchesSnapshot(Paths.get("src/test/resources/snapshots/page.txt")));
+     * </pre>
+     *
+     * @param goldenFile the golden file
+     * @return a matcher instance
+     * @see ResourceSnapshotMatcher#serialize(Resource)
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> matchesSnapshot(Path goldenFile) {
+        return new ResourceSnapshotMatcher(goldenFile);
+    }
+
+    /**
+     * Matches resources whose subtree has the same content as the subtree of the {@code expected} resource: the same
+     * resource types, properties and children on every level, regardless of the order of the children.
+     *
+     * <p>Both subtrees are fingerprinted first, so for nearly identical trees only the differing branches are
+     * compared in detail.</p>
+     * <pre>
+     * assertThat(resolver.getResource("/content/migrated"), sameTreeAs(resolver.getResource("/content/reference")));
+     * </pre>
+     *
+     * @param expected the root of the expected subtree
+     * @return a matcher instance
+     * @since 1.2.0
+     */
+    public static Matcher<Resource> sameTreeAs(Resource expected) {
+        return new SameResourceTreeMatcher(expected);
+    }
+
     private ResourceMatchers() {
         // prevent instantiation
     }
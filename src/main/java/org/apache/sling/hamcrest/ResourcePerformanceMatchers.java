@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.hamcrest.matchers.AllocationMatcher;
+import org.apache.sling.hamcrest.matchers.LatencyBound;
+import org.apache.sling.hamcrest.matchers.LatencyMatcher;
+import org.hamcrest.Matcher;
+
+/**
+ * A collection of {@code Matcher}s for the performance of operations, e.g. rendering a model over a resource.
+ * <pre>
+ * assertThat(() -&gt; model.render(resource), runsWithin(p99(5, MILLISECONDS)));
+ * assertThat(() -&gt; model.render(resource), allocatesAtMost(4096));
+ * </pre>
+ *
+ * <p>These matchers measure on the executing thread and are therefore only meaningful for a sufficient number of
+ * iterations on a machine which is not overloaded. Generous bounds avoid flaky tests.</p>
+ *
+ * @since 1.2.0
+ */
+public final class ResourcePerformanceMatchers {
+
+    /**
+     * Number of warm-up runs used by {@link #runsWithin(LatencyBound...)}.
+     */
+    public static final int DEFAULT_WARMUP_ITERATIONS = 100;
+
+    /**
+     * Number of measured runs used by {@link #runsWithin(LatencyBound...)}.
+     */
+    public static final int DEFAULT_MEASUREMENT_ITERATIONS = 1000;
+
+    /**
+     * Number of warm-up runs used by {@link #allocatesAtMost(long)}, high enough for the JIT compiler to optimize
+     * the operation.
+     */
+    public static final int DEFAULT_ALLOCATION_WARMUP_ITERATIONS = 10_000;
+
+    /**
+     * Number of measured runs used by {@link #allocatesAtMost(long)}.
+     */
+    public static final int DEFAULT_ALLOCATION_MEASUREMENT_ITERATIONS = 100;
+
+    private ResourcePerformanceMatchers() {
+        // static methods only
+    }
+
+    /**
+     * Matches operations whose latencies are within all the given bounds, measured over
+     * {@value #DEFAULT_MEASUREMENT_ITERATIONS} runs after {@value #DEFAULT_WARMUP_ITERATIONS} warm-up runs.
+     *
+     * @param bounds the latency bounds
+     * @return a matcher instance
+     */
+    public static Matcher<Runnable> runsWithin(LatencyBound... bounds) {
+        return runsWithin(DEFAULT_WARMUP_ITERATIONS, DEFAULT_MEASUREMENT_ITERATIONS, bounds);
+    }
+
+    /**
+     * Matches operations whose latencies are within all the given bounds.
+     *
+     * @param warmupIterations the number of runs before measuring
+     * @param measurementIterations the number of measured runs
+     * @param bounds the latency bounds
+     * @return a matcher instance
+     */
+    public static Matcher<Runnable> runsWithin(
+            int warmupIterations, int measurementIterations, LatencyBound... bounds) {
+        return new LatencyMatcher(warmupIterations, measurementIterations, bounds);
+    }
+
+    /**
+     * @param duration the maximum median latency
+     * @param unit the unit of {@code duration}
+     * @return a bound for the 50th percentile
+     */
+    public static LatencyBound p50(long duration, TimeUnit unit) {
+        return new LatencyBound(50, duration, unit);
+    }
+
+    /**
+     * @param duration the maximum latency of the 90th percentile
+     * @param unit the unit of {@code duration}
+     * @return a bound for the 90th percentile
+     */
+    public static LatencyBound p90(long duration, TimeUnit unit) {
+        return new LatencyBound(90, duration, unit);
+    }
+
+    /**
+     * @param duration the maximum latency of the 95th percentile
+     * @param unit the unit of {@code duration}
+     * @return a bound for the 95th percentile
+     */
+    public static LatencyBound p95(long duration, TimeUnit unit) {
+        return new LatencyBound(95, duration, unit);
+    }
+
+    /**
+     * @param duration the maximum latency of the 99th percentile
+     * @param unit the unit of {@code duration}
+     * @return a bound for the 99th percentile
+     */
+    public static LatencyBound p99(long duration, TimeUnit unit) {
+        return new LatencyBound(99, duration, unit);
+    }
+
+    /**
+     * @param duration the maximum latency of the 99.9th percentile
+     * @param unit the unit of {@code duration}
+     * @return a bound for the 99.9th percentile
+     */
+    public static LatencyBound p999(long duration, TimeUnit unit) {
+        return new LatencyBound(99.9, duration, unit);
+    }
+
+    /**
+     * @param percentile the percentile, greater than 0 and at most 100
+     * @param duration the maximum latency of the percentile
+     * @param unit the unit of {@code duration}
+     * @return a bound for the given percentile
+     */
+    public static LatencyBound percentile(double percentile, long duration, TimeUnit unit) {
+        return new LatencyBound(percentile, duration, unit);
+    }
+
+    /**
+     * Matches operations which allocate at most {@code bytes} on the current thread per run on average, measured
+     * over {@value #DEFAULT_ALLOCATION_MEASUREMENT_ITERATIONS} runs after
+     * {@value #DEFAULT_ALLOCATION_WARMUP_ITERATIONS} warm-up runs.
+     *
+     * <p>Requires a JVM providing {@code com.sun.management.ThreadMXBean}, otherwise the matcher never matches.</p>
+     * <pre>
+     * assertThat(() -&gt; traverse(resource), allocatesAtMost(1024));
+     * </pre>
+     *
+     * @param bytes the maximum number of bytes allocated per run on average
+     * @return a matcher instance
+     */
+    public static Matcher<Runnable> allocatesAtMost(long bytes) {
+        return allocatesAtMost(bytes, DEFAULT_ALLOCATION_WARMUP_ITERATIONS, DEFAULT_ALLOCATION_MEASUREMENT_ITERATIONS);
+    }
+
+    /**
+     * Matches operations which allocate at most {@code bytes} on the current thread per run on average.
+     *
+     * @param bytes the maximum number of bytes allocated per run on average
+     * @param warmupIterations the number of runs before measuring
+     * @param measurementIterations the number of measured runs
+     * @return a matcher instance
+     * @see #allocatesAtMost(long)
+     */
+    public static Matcher<Runnable> allocatesAtMost(long bytes, int warmupIterations, int measurementIterations) {
+        return AllocationMatcher.runnable(bytes, warmupIterations, measurementIterations);
+    }
+
+    /**
+     * Matches resources for which the given operation allocates at most {@code bytes} on the current thread per
+     * run on average, so that it can be combined with other resource matchers.
+     * <pre>
+     * assertThat(resource, both(props("jcr:title", "Home")).and(allocatesAtMost(1024, r -&gt; traverse(r))));
+     * </pre>
+     *
+     * @param bytes the maximum number of bytes allocated per run on average
+     * @param operation the operation to run with the resource
+     * @return a matcher instance
+     * @see #allocatesAtMost(long)
+     */
+    public static Matcher<Resource> allocatesAtMost(long bytes, Consumer<? super Resource> operation) {
+        return AllocationMatcher.resource(
+                operation, bytes, DEFAULT_ALLOCATION_WARMUP_ITERATIONS, DEFAULT_ALLOCATION_MEASUREMENT_ITERATIONS);
+    }
+}
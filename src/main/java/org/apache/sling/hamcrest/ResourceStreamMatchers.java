@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.hamcrest.matchers.ResourceStreamMatcher;
+import org.apache.sling.hamcrest.matchers.ResourceStreamPathMatcher;
+import org.hamcrest.Matcher;
+
+/**
+ * A collection of {@code Matcher}s for resource streams. Streams are consumed lazily and only as far as needed.
+ *
+ * @since 1.2.0
+ */
+public final class ResourceStreamMatchers {
+
+    private ResourceStreamMatchers() {
+        // static methods only
+    }
+
+    /**
+     * Asserts that the given resource stream has resources with exactly the given paths in the given order.
+     * @param paths the expected resource paths
+     * @return a matcher instance
+     */
+    public static Matcher<Stream<Resource>> paths(String... paths) {
+        return new ResourceStreamPathMatcher(Arrays.asList(paths));
+    }
+
+    /**
+     * Asserts that every resource of the given stream matches the given matcher.
+     * @param matcher the matcher for the resources
+     * @return a matcher instance
+     */
+    public static Matcher<Stream<Resource>> allMatch(Matcher<? super Resource> matcher) {
+        return ResourceStreamMatcher.allMatch(matcher, false);
+    }
+
+    /**
+     * Asserts that at least one resource of the given stream matches the given matcher.
+     * @param matcher the matcher for the resources
+     * @return a matcher instance
+     */
+    public static Matcher<Stream<Resource>> anyMatch(Matcher<? super Resource> matcher) {
+        return ResourceStreamMatcher.anyMatch(matcher, false);
+    }
+
+    /**
+     * Asserts that no resource of the given stream matches the given matcher.
+     * @param matcher the matcher for the resources
+     * @return a matcher instance
+     */
+    public static Matcher<Stream<Resource>> noneMatch(Matcher<? super Resource> matcher) {
+        return ResourceStreamMatcher.noneMatch(matcher, false);
+    }
+
+    /**
+     * Asserts that every resource of the given stream matches the given matcher, evaluating the stream as unordered
+     * parallel stream. The matcher must be thread-safe.
+     * @param matcher the matcher for the resources
+     * @return a matcher instance
+     */
+    public static Matcher<Stream<Resource>> allMatchInParallel(Matcher<? super Resource> matcher) {
+        return ResourceStreamMatcher.allMatch(matcher, true);
+    }
+
+    /**
+     * Asserts that at least one resource of the given stream matches the given matcher, evaluating the stream as
+     * unordered parallel stream. The matcher must be thread-safe.
+     * @param matcher the matcher for the resources
+     * @return a matcher instance
+     */
+    public static Matcher<Stream<Resource>> anyMatchInParallel(Matcher<? super Resource> matcher) {
+        return ResourceStreamMatcher.anyMatch(matcher, true);
+    }
+
+    /**
+     * Asserts that no resource of the given stream matches the given matcher, evaluating the stream as unordered
+     * parallel stream. The matcher must be thread-safe.
+     * @param matcher the matcher for the resources
+     * @return a matcher instance
+     */
+    public static Matcher<Stream<Resource>> noneMatchInParallel(Matcher<? super Resource> matcher) {
+        return ResourceStreamMatcher.noneMatch(matcher, true);
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.hamcrest.matchers.PathPattern;
+import org.hamcrest.Matcher;
+
+/**
+ * Validates a whole subtree against a set of rules, e.g. for running the matchers used in unit tests as content
+ * health check against a large repository.
+ *
+ * <p>Each rule maps a path pattern (see {@link PathPattern}) or a resource type to a matcher. The subtree is
+ * traversed once, and every resource to which at least one rule applies is validated, by default in the calling
+ * thread. Violations are streamed to a sink as failed {@link MatchResult}s.</p>
+ * <pre>
+ * MatchReport report = ResourceValidationEngine.create()
+ *         .withPathRule("/content/site/.+/jcr:content", propsMatching(Map.of("jcr:title", notNullValue())))
+ *         .withResourceTypeRule("site/components/image", hasChildren("image"))
+ *         .withMaxInFlight(500)
+ *         .validate(root, violation -&gt; log.warn("{}", violation));
+ * </pre>
+ *
+ * <p>Validation by a bounded pool of workers is opt-in via {@link #withPlatformThreads(int)} or
+ * {@link #withVirtualThreads()}. Resources are then validated concurrently, which is only safe if the resource
+ * resolver the subtree was obtained from and all matchers can be used from several threads; a
+ * {@code ResourceResolver} is not thread-safe in general. Traversal blocks while the configured maximum number of
+ * resources is waiting for validation, so it never runs ahead of validation by more than that number of
+ * resources. The sink is never called concurrently. Instances are immutable.</p>
+ *
+ * @since 1.2.0
+ */
+public final class ResourceValidationEngine {
+
+    /**
+     * Default maximum number of resources which may be waiting for validation.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1000;
+
+    /**
+     * Number of workers indicating to use virtual threads.
+     */
+    private static final int VIRTUAL_THREADS = 0;
+
+    private final List<Rule> rules;
+    private final int threads;
+    private final int maxInFlight;
+
+    private ResourceValidationEngine(List<Rule> rules, int threads, int maxInFlight) {
+        this.rules = rules;
+        this.threads = threads;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * @return a new instance without rules, validating in the calling thread
+     */
+    public static ResourceValidationEngine create() {
+        return new ResourceValidationEngine(Collections.emptyList(), 1, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * @param pathRegex regular expression which must match the whole resource path
+     * @param matcher the matcher to validate the resources with a matching path
+     * @return a new instance with the additional rule
+     */
+    public ResourceValidationEngine withPathRule(String pathRegex, Matcher<? super Resource> matcher) {
+        return withRule(new Rule(PathPattern.regex(pathRegex), null, matcher));
+    }
+
+    /**
+     * @param pathPattern the pattern which the resource path must match
+     * @param matcher the matcher to validate the resources with a matching path
+     * @return a new instance with the additional rule
+     */
+    public ResourceValidationEngine withPathRule(PathPattern pathPattern, Matcher<? super Resource> matcher) {
+        if (pathPattern == null) {
+            throw new IllegalArgumentException("pathPattern is null");
+        }
+        return withRule(new Rule(pathPattern, null, matcher));
+    }
+
+    /**
+     * @param resourceType the resource type, which also applies to resources with a derived resource type
+     * @param matcher the matcher to validate the resources of the given resource type
+     * @return a new instance with the additional rule
+     */
+    public ResourceValidationEngine withResourceTypeRule(String resourceType, Matcher<? super Resource> matcher) {
+        if (resourceType == null || resourceType.isEmpty()) {
+            throw new IllegalArgumentException("resourceType is null or empty");
+        }
+        return withRule(new Rule(null, resourceType, matcher));
+    }
+
+    /**
+     * Validates the resources with the given number of platform threads. With more than one thread, the resource
+     * resolver and all matchers must be thread-safe.
+     * @param threads the number of platform threads validating the resources, 1 to validate in the calling thread
+     * @return a new instance using the given number of platform threads
+     */
+    public ResourceValidationEngine withPlatformThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads is not positive");
+        }
+        return new ResourceValidationEngine(rules, threads, maxInFlight);
+    }
+
+    /**
+     * Validates the resources with virtual threads if supported by the Java runtime, otherwise with a pool of
+     * platform threads. The resource resolver and all matchers must be thread-safe.
+     * @return a new instance using virtual threads
+     */
+    public ResourceValidationEngine withVirtualThreads() {
+        return new ResourceValidationEngine(rules, VIRTUAL_THREADS, maxInFlight);
+    }
+
+    /**
+     * @param maxInFlight the maximum number of traversed resources which may be waiting for validation
+     * @return a new instance with the given bound
+     */
+    public ResourceValidationEngine withMaxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight is not positive");
+        }
+        return new ResourceValidationEngine(rules, threads, maxInFlight);
+    }
+
+    /**
+     * Validates the given resource and all its descendants.
+     * @param root the root of the subtree to validate
+     * @param violationSink receives the failed result of every rule violated by a resource
+     * @return the aggregated report, counting the resources to which at least one rule applied
+     */
+    public MatchReport validate(Resource root, Consumer<? super MatchResult> violationSink) {
+        if (root == null) {
+            throw new IllegalArgumentException("root is null");
+        }
+        if (violationSink == null) {
+            throw new IllegalArgumentException("violationSink is null");
+        }
+        if (rules.isEmpty()) {
+            throw new IllegalStateException("No rules defined");
+        }
+        MatchStatistics statistics = new MatchStatistics(rules.size());
+        long start = System.nanoTime();
+        try (BoundedExecutor executor = threads == VIRTUAL_THREADS
+                ? BoundedExecutor.withVirtualThreads(maxInFlight, "sling-hamcrest-validation")
+                : BoundedExecutor.withPlatformThreads(threads, maxInFlight, "sling-hamcrest-validation")) {
+            dispatch(root, executor, statistics, violationSink);
+            Deque<Iterator<Resource>> stack = new ArrayDeque<>();
+            stack.push(root.listChildren());
+            while (!stack.isEmpty()) {
+                Iterator<Resource> children = stack.peek();
+                if (!children.hasNext()) {
+                    stack.pop();
+                    continue;
+                }
+                Resource child = children.next();
+                dispatch(child, executor, statistics, violationSink);
+                stack.push(child.listChildren());
+            }
+            executor.awaitCompletion();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating " + root.getPath(), ex);
+        }
+        List<Matcher<? super Resource>> matchers = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            matchers.add(rule.matcher);
+        }
+        return statistics.toReport(matchers, System.nanoTime() - start);
+    }
+
+    private ResourceValidationEngine withRule(Rule rule) {
+        List<Rule> newRules = new ArrayList<>(rules);
+        newRules.add(rule);
+        return new ResourceValidationEngine(Collections.unmodifiableList(newRules), threads, maxInFlight);
+    }
+
+    /**
+     * Selects the rules applying to a resource in the traversing thread, and submits the resource for validation
+     * if there are any.
+     */
+    private void dispatch(
+            Resource resource,
+            BoundedExecutor executor,
+            MatchStatistics statistics,
+            Consumer<? super MatchResult> violationSink)
+            throws InterruptedException {
+        int[] applicable = new int[rules.size()];
+        int count = 0;
+        for (int i = 0; i < rules.size(); i++) {
+            if (rules.get(i).appliesTo(resource)) {
+                applicable[count++] = i;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        int applicableCount = count;
+        executor.execute(() -> validate(resource, applicable, applicableCount, statistics, violationSink));
+    }
+
+    private void validate(
+            Resource resource,
+            int[] applicable,
+            int count,
+            MatchStatistics statistics,
+            Consumer<? super MatchResult> violationSink) {
+        boolean allPassed = true;
+        for (int i = 0; i < count; i++) {
+            MatchResult result = MatchResult.evaluate(resource, rules.get(applicable[i]).matcher);
+            statistics.record(applicable[i], result);
+            if (!result.isPassed()) {
+                allPassed = false;
+                synchronized (violationSink) {
+                    violationSink.accept(result);
+                }
+            }
+        }
+        statistics.recordResource(allPassed);
+    }
+
+    private static final class Rule {
+
+        private final PathPattern pathPattern;
+        private final String resourceType;
+        private final Matcher<? super Resource> matcher;
+
+        Rule(PathPattern pathPattern, String resourceType, Matcher<? super Resource> matcher) {
+            if (matcher == null) {
+                throw new IllegalArgumentException("matcher is null");
+            }
+            this.pathPattern = pathPattern;
+            this.resourceType = resourceType;
+            this.matcher = matcher;
+        }
+
+        boolean appliesTo(Resource resource) {
+            if (pathPattern != null) {
+                return pathPattern.matches(resource.getPath());
+            }
+            return resource.isResourceType(resourceType);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Matcher which runs an operation repeatedly and matches whenever it allocates at most the given number of bytes
+ * per run on average, measured on the current thread via {@code com.sun.management.ThreadMXBean}.
+ *
+ * <p>The operation is first run for the given number of warm-up iterations without measuring, so that the JIT
+ * compiler can optimize it (e.g. eliminate allocations by escape analysis). The bytes allocated by the measurement
+ * itself are calibrated and subtracted. On JVMs not supporting the measurement the matcher never matches.</p>
+ *
+ * @param <T> the type of the matched item
+ * @since 1.2.0
+ */
+public class AllocationMatcher<T> extends TypeSafeMatcher<T> {
+
+    private static final int CALIBRATION_ITERATIONS = 10;
+
+    private final Consumer<? super T> operation;
+    private final long maxBytes;
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final EvaluationRecord<Measurement> measurements = new EvaluationRecord<>();
+
+    private AllocationMatcher(
+            Class<?> type,
+            Consumer<? super T> operation,
+            long maxBytes,
+            int warmupIterations,
+            int measurementIterations) {
+        super(type);
+        if (operation == null) {
+            throw new IllegalArgumentException("operation is null");
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes is negative");
+        }
+        if (warmupIterations < 0) {
+            throw new IllegalArgumentException("warmupIterations is negative");
+        }
+        if (measurementIterations <= 0) {
+            throw new IllegalArgumentException("measurementIterations is not positive");
+        }
+        this.operation = operation;
+        this.maxBytes = maxBytes;
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+    }
+
+    /**
+     * @param maxBytes the maximum number of bytes allocated per run on average
+     * @param warmupIterations the number of runs before measuring
+     * @param measurementIterations the number of measured runs
+     * @return a matcher running the matched operation
+     */
+    public static AllocationMatcher<Runnable> runnable(long maxBytes, int warmupIterations, int measurementIterations) {
+        return new AllocationMatcher<Runnable>(
+                Runnable.class, Runnable::run, maxBytes, warmupIterations, measurementIterations);
+    }
+
+    /**
+     * @param operation the operation to run with the matched resource
+     * @param maxBytes the maximum number of bytes allocated per run on average
+     * @param warmupIterations the number of runs before measuring
+     * @param measurementIterations the number of measured runs
+     * @return a matcher running the given operation with the matched resource
+     */
+    public static AllocationMatcher<Resource> resource(
+            Consumer<? super Resource> operation, long maxBytes, int warmupIterations, int measurementIterations) {
+        return new AllocationMatcher<Resource>(
+                Resource.class, operation, maxBytes, warmupIterations, measurementIterations);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("operation allocating at most " + maxBytes + " bytes on average over "
+                + measurementIterations + " runs");
+    }
+
+    @Override
+    protected boolean matchesSafely(T item) {
+        Measurement measurement = measure(item);
+        if (measurement == null) {
+            return false;
+        }
+        if (measurement.getAverage() <= maxBytes) {
+            return true;
+        }
+        measurements.record(item, measurement);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(T item, Description mismatchDescription) {
+        Measurement measurement = measurements.take(item);
+        if (measurement == null) {
+            measurement = measure(item);
+        }
+        if (measurement == null) {
+            mismatchDescription.appendText("could not be measured, allocated bytes per thread are not supported");
+            return;
+        }
+        mismatchDescription.appendText(String.format(
+                Locale.ROOT,
+                "allocated %.1f bytes on average and at most %d bytes per run (%d runs)",
+                measurement.getAverage(),
+                measurement.max,
+                measurementIterations));
+    }
+
+    private Measurement measure(T item) {
+        if (!ThreadAllocation.isSupported()) {
+            return null;
+        }
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.accept(item);
+        }
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ITERATIONS; i++) {
+            long before = ThreadAllocation.currentThreadAllocatedBytes();
+            overhead = Math.min(overhead, ThreadAllocation.currentThreadAllocatedBytes() - before);
+        }
+        long total = 0;
+        long max = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long before = ThreadAllocation.currentThreadAllocatedBytes();
+            operation.accept(item);
+            long bytes = Math.max(0L, ThreadAllocation.currentThreadAllocatedBytes() - before - overhead);
+            total += bytes;
+            max = Math.max(max, bytes);
+        }
+        return new Measurement(total, max, measurementIterations);
+    }
+
+    private static final class Measurement {
+
+        private final long total;
+        private final long max;
+        private final int runs;
+
+        Measurement(long total, long max, int runs) {
+            this.total = total;
+            this.max = max;
+            this.runs = runs;
+        }
+
+        double getAverage() {
+            return (double) total / runs;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Matcher which matches whenever the given resource has a binary property with the expected content, given either
+ * as byte array, as file or as SHA-256 digest.
+ *
+ * <p>The binary is streamed through fixed-size buffers which are reused per thread, so even huge binaries are
+ * compared in constant memory. Comparing with a byte array or file stops at the first differing chunk.</p>
+ *
+ * @since 1.2.0
+ */
+public class BinaryPropertyMatcher extends TypeSafeMatcher<Resource> {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String SHA_256 = "SHA-256";
+
+    private static final ThreadLocal<byte[][]> BUFFERS = ThreadLocal.withInitial(() -> new byte[2][BUFFER_SIZE]);
+
+    private final String name;
+    private final byte[] expectedContent;
+    private final Path expectedFile;
+    private final byte[] expectedDigest;
+    private final EvaluationRecord<Mismatch> mismatches = new EvaluationRecord<>();
+
+    /**
+     * @param name the name of the binary property
+     * @param expectedContent the expected content
+     */
+    public BinaryPropertyMatcher(String name, byte[] expectedContent) {
+        this(name, checkNotNull(expectedContent, "expectedContent").clone(), null, null);
+    }
+
+    /**
+     * @param name the name of the binary property
+     * @param expectedFile the file with the expected content
+     */
+    public BinaryPropertyMatcher(String name, Path expectedFile) {
+        this(name, null, checkNotNull(expectedFile, "expectedFile"), null);
+    }
+
+    private BinaryPropertyMatcher(String name, byte[] expectedContent, Path expectedFile, byte[] expectedDigest) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name is null or empty");
+        }
+        this.name = name;
+        this.expectedContent = expectedContent;
+        this.expectedFile = expectedFile;
+        this.expectedDigest = expectedDigest;
+    }
+
+    /**
+     * @param name the name of the binary property
+     * @param sha256 the expected SHA-256 digest of the content, as 64 hexadecimal digits
+     * @return a matcher comparing the digest of the binary with the given one
+     */
+    public static BinaryPropertyMatcher withSha256(String name, String sha256) {
+        if (sha256 == null || sha256.length() != 64) {
+            throw new IllegalArgumentException("sha256 is not a SHA-256 digest: " + sha256);
+        }
+        byte[] digest = new byte[32];
+        for (int i = 0; i < digest.length; i++) {
+            int high = Character.digit(sha256.charAt(2 * i), 16);
+            int low = Character.digit(sha256.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("sha256 is not a SHA-256 digest: " + sha256);
+            }
+            digest[i] = (byte) (high << 4 | low);
+        }
+        return new BinaryPropertyMatcher(name, null, null, digest);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("Resource with binary property ").appendValue(name);
+        if (expectedContent != null) {
+            description.appendText(" with ").appendValue(expectedContent.length).appendText(" bytes of content");
+        } else if (expectedFile != null) {
+            description.appendText(" with the content of ").appendValue(expectedFile);
+        } else {
+            description.appendText(" with SHA-256 ").appendText(toHex(expectedDigest));
+        }
+    }
+
+    @Override
+    protected boolean matchesSafely(Resource item) {
+        Mismatch mismatch = evaluate(item);
+        if (mismatch == null) {
+            return true;
+        }
+        mismatches.record(item, mismatch);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(Resource item, Description mismatchDescription) {
+        Mismatch mismatch = mismatches.take(item);
+        if (mismatch == null) {
+            mismatch = evaluate(item);
+        }
+        mismatchDescription.appendText("was Resource with binary property ").appendValue(name);
+        if (mismatch == null) {
+            mismatchDescription.appendText(" with the expected content");
+        } else if (mismatch.actualDigest != null) {
+            mismatchDescription.appendText(" with SHA-256 ").appendText(toHex(mismatch.actualDigest));
+        } else if (mismatch.offset < 0) {
+            mismatchDescription.appendText(" missing");
+        } else if (mismatch.actualEnded) {
+            mismatchDescription.appendText(" ending after " + mismatch.offset + " bytes");
+        } else if (mismatch.expectedEnded) {
+            mismatchDescription.appendText(" longer than the expected " + mismatch.offset + " bytes");
+        } else {
+            mismatchDescription.appendText(" differing at byte offset " + mismatch.offset);
+        }
+        mismatchDescription.appendText(" (resource: ").appendValue(item).appendText(")");
+    }
+
+    private Mismatch evaluate(Resource item) {
+        try (InputStream actual = openBinary(item.getValueMap(), name)) {
+            if (actual == null) {
+                return new Mismatch(-1, false, false, null);
+            }
+            if (expectedDigest != null) {
+                byte[] actualDigest = digest(actual);
+                return MessageDigest.isEqual(expectedDigest, actualDigest)
+                        ? null
+                        : new Mismatch(0, false, false, actualDigest);
+            }
+            if (expectedContent != null) {
+                return compare(new ByteArrayInputStream(expectedContent), actual);
+            }
+            try (InputStream expected = Files.newInputStream(expectedFile)) {
+                return compare(expected, actual);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read binary property " + name, ex);
+        }
+    }
+
+    private static InputStream openBinary(ValueMap properties, String name) {
+        Object value = properties.get(name);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof InputStream) {
+            return (InputStream) value;
+        }
+        if (value instanceof byte[]) {
+            return new ByteArrayInputStream((byte[]) value);
+        }
+        return properties.get(name, InputStream.class);
+    }
+
+    /**
+     * Compares both streams chunk by chunk, stopping at the first differing chunk.
+     */
+    private static Mismatch compare(InputStream expected, InputStream actual) throws IOException {
+        byte[][] buffers = BUFFERS.get();
+        byte[] expectedChunk = buffers[0];
+        byte[] actualChunk = buffers[1];
+        long offset = 0;
+        while (true) {
+            int expectedLength = expected.readNBytes(expectedChunk, 0, BUFFER_SIZE);
+            int actualLength = actual.readNBytes(actualChunk, 0, BUFFER_SIZE);
+            int index = Arrays.mismatch(expectedChunk, 0, expectedLength, actualChunk, 0, actualLength);
+            if (index >= 0) {
+                return new Mismatch(offset + index, index == actualLength, index == expectedLength, null);
+            }
+            if (expectedLength < BUFFER_SIZE) {
+                return null;
+            }
+            offset += expectedLength;
+        }
+    }
+
+    private static byte[] digest(InputStream actual) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(SHA_256);
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+        byte[] chunk = BUFFERS.get()[0];
+        int length;
+        while ((length = actual.read(chunk)) != -1) {
+            digest.update(chunk, 0, length);
+        }
+        return digest.digest();
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static <T> T checkNotNull(T value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(name + " is null");
+        }
+        return value;
+    }
+
+    private static final class Mismatch {
+
+        /**
+         * The first differing byte offset, -1 if the property is missing.
+         */
+        private final long offset;
+
+        private final boolean actualEnded;
+        private final boolean expectedEnded;
+        private final byte[] actualDigest;
+
+        Mismatch(long offset, boolean actualEnded, boolean expectedEnded, byte[] actualDigest) {
+            this.offset = offset;
+            this.actualEnded = actualEnded;
+            this.expectedEnded = expectedEnded;
+            this.actualDigest = actualDigest;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map of expected property names to values, backed by arrays.
+ *
+ * <p>The entries keep the order in which they were given. Names are validated and converted to strings once at
+ * construction. Lookups scan the names linearly for small maps and use an open addressing hash table otherwise.
+ * Matchers iterate the entries by index via {@link #size()}, {@link #nameAt(int)} and {@link #valueAt(int)}, which
+ * neither allocates an iterator nor entry objects. Values may be {@code null}.</p>
+ *
+ * @since 1.2.0
+ */
+public final class CompactPropertyMap extends AbstractMap<String, Object> {
+
+    /** Maps up to this size are looked up by a linear scan without hash table. */
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    private static final CompactPropertyMap EMPTY = new CompactPropertyMap(new String[0], new Object[0], null);
+
+    private final String[] names;
+    private final Object[] values;
+    /** open addressing hash table with the index + 1 of the entry in each slot, {@code null} for small maps */
+    private final int[] table;
+
+    private CompactPropertyMap(String[] names, Object[] values, int[] table) {
+        this.names = names;
+        this.values = values;
+        this.table = table;
+    }
+
+    /**
+     * Creates a map from alternating names and values. If a name occurs more than once, the last value wins.
+     * @param namesAndValues property names (not {@code null}) and values, alternating
+     * @return the map
+     * @throws IllegalArgumentException if the number of arguments is odd or a name is {@code null}
+     */
+    public static CompactPropertyMap of(Object... namesAndValues) {
+        if (namesAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException(
+                    "args must be an even number of name/values:" + Arrays.asList(namesAndValues));
+        }
+        Builder builder = new Builder(namesAndValues.length / 2);
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            builder.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates an immutable copy of the given map, keeping its iteration order.
+     * @param map the map to copy
+     * @return the copy, or the given map itself if it is already a {@code CompactPropertyMap}
+     * @throws IllegalArgumentException if the map contains a {@code null} name
+     */
+    public static CompactPropertyMap copyOf(Map<?, ?> map) {
+        if (map instanceof CompactPropertyMap) {
+            return (CompactPropertyMap) map;
+        }
+        Builder builder = new Builder(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            builder.put(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param index the index of the entry, between 0 and {@code size() - 1}
+     * @return the property name of the entry
+     */
+    public String nameAt(int index) {
+        return names[index];
+    }
+
+    /**
+     * @param index the index of the entry, between 0 and {@code size() - 1}
+     * @return the property value of the entry, may be {@code null}
+     */
+    public Object valueAt(int index) {
+        return values[index];
+    }
+
+    /**
+     * @param name the property name
+     * @return the index of the entry with the given name or -1 if there is none
+     */
+    public int indexOf(Object name) {
+        if (!(name instanceof String)) {
+            return -1;
+        }
+        if (table == null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        return lookup(table, names, (String) name);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public int size() {
+                return names.length;
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new Iterator<Map.Entry<String, Object>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < names.length;
+                    }
+
+                    @Override
+                    public Map.Entry<String, Object> next() {
+                        if (index >= names.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Map.Entry<String, Object> entry =
+                                new AbstractMap.SimpleImmutableEntry<String, Object>(names[index], values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+        };
+    }
+
+    private static int slot(String name, int mask) {
+        int hash = name.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static int lookup(int[] table, String[] names, String name) {
+        int mask = table.length - 1;
+        for (int slot = slot(name, mask); table[slot] != 0; slot = (slot + 1) & mask) {
+            int index = table[slot] - 1;
+            if (names[index].equals(name)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Builder {
+
+        private final String[] names;
+        private final Object[] values;
+        private final int[] table;
+        private int size;
+
+        Builder(int capacity) {
+            this.names = new String[capacity];
+            this.values = new Object[capacity];
+            // keep the load factor at or below 0.5
+            this.table = capacity > LINEAR_SCAN_LIMIT ? new int[Integer.highestOneBit(capacity - 1) << 2] : null;
+        }
+
+        void put(Object key, Object value) {
+            if (key == null) {
+                throw new IllegalArgumentException("property name must not be null");
+            }
+            String name = key.toString();
+            int index = find(name);
+            if (index >= 0) {
+                values[index] = value;
+                return;
+            }
+            names[size] = name;
+            values[size] = value;
+            size++;
+            if (table != null) {
+                int mask = table.length - 1;
+                int slot = slot(name, mask);
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = size;
+            }
+        }
+
+        private int find(String name) {
+            if (table != null) {
+                return lookup(table, names, name);
+            }
+            for (int i = 0; i < size; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        CompactPropertyMap build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (size == names.length) {
+                return new CompactPropertyMap(names, values, table);
+            }
+            // duplicate names were given, the hash table stays valid as it only refers to the first size indexes
+            String[] trimmedNames = Arrays.copyOf(names, size);
+            Object[] trimmedValues = Arrays.copyOf(values, size);
+            return new CompactPropertyMap(trimmedNames, trimmedValues, size > LINEAR_SCAN_LIMIT ? table : null);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.Map;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Matcher which checks name, path, resource type and properties of a resource in a single evaluation.
+ *
+ * <p>Instances are immutable, each of the fluent methods returns a new matcher with the additional check. The checks
+ * are evaluated in order of their cost (name, path, resource type, properties) and evaluation stops at the first
+ * failing one. Each resource accessor is called at most once, also when describing a mismatch, which reports all
+ * failing checks at once.</p>
+ *
+ * <pre>
+ * assertThat(resource, ResourceMatchers.resource().name("page").resourceType("my/page").props(expectedProperties));
+ * </pre>
+ */
+public class CompositeResourceMatcher extends TypeSafeMatcher<Resource> {
+
+    private static final int NAME = 0;
+    private static final int PATH = 1;
+    private static final int TYPE = 2;
+    private static final int PROPERTIES = 3;
+
+    private final String name;
+    private final String path;
+    private final String type;
+    private final boolean allowSubtypes;
+    private final CompactPropertyMap expectedProps;
+    private final EvaluationRecord<Evaluation> mismatches = new EvaluationRecord<Evaluation>();
+
+    /**
+     * Creates a matcher without any checks, which matches every resource.
+     */
+    public CompositeResourceMatcher() {
+        this(null, null, null, false, null);
+    }
+
+    private CompositeResourceMatcher(
+            String name, String path, String type, boolean allowSubtypes, CompactPropertyMap expectedProps) {
+        this.name = name;
+        this.path = path;
+        this.type = type;
+        this.allowSubtypes = allowSubtypes;
+        this.expectedProps = expectedProps;
+    }
+
+    /**
+     * @param name the expected name, not {@code null}
+     * @return a new matcher which additionally checks the resource name
+     */
+    public CompositeResourceMatcher name(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("name is null");
+        }
+        return new CompositeResourceMatcher(name, path, type, allowSubtypes, expectedProps);
+    }
+
+    /**
+     * @param path the expected path, not {@code null}
+     * @return a new matcher which additionally checks the resource path
+     */
+    public CompositeResourceMatcher path(String path) {
+        if (path == null) {
+            throw new IllegalArgumentException("path is null");
+        }
+        return new CompositeResourceMatcher(name, path, type, allowSubtypes, expectedProps);
+    }
+
+    /**
+     * @param resourceType the expected resource type, not {@code null}
+     * @return a new matcher which additionally checks the resource type (exactly)
+     */
+    public CompositeResourceMatcher resourceType(String resourceType) {
+        if (resourceType == null) {
+            throw new IllegalArgumentException("resourceType is null");
+        }
+        return new CompositeResourceMatcher(name, path, resourceType, false, expectedProps);
+    }
+
+    /**
+     * @param resourceType the expected resource type, not {@code null}
+     * @return a new matcher which additionally checks the resource type, allowing also sub types
+     * @see Resource#isResourceType(String)
+     */
+    public CompositeResourceMatcher resourceTypeOrDerived(String resourceType) {
+        if (resourceType == null) {
+            throw new IllegalArgumentException("resourceType is null");
+        }
+        return new CompositeResourceMatcher(name, path, resourceType, true, expectedProps);
+    }
+
+    /**
+     * @param properties the properties to match, not {@code null} or empty
+     * @return a new matcher which additionally checks that the resource has at least the given properties with equal
+     *     values
+     */
+    public CompositeResourceMatcher props(Map<String, Object> properties) {
+        if (properties == null || properties.isEmpty()) {
+            throw new IllegalArgumentException("properties is null or empty");
+        }
+        return new CompositeResourceMatcher(name, path, type, allowSubtypes, CompactPropertyMap.copyOf(properties));
+    }
+
+    /**
+     * @param properties the properties to match as alternating names and values, not {@code null} or empty
+     * @return a new matcher which additionally checks that the resource has at least the given properties with equal
+     *     values
+     */
+    public CompositeResourceMatcher props(Object... properties) {
+        if (properties == null || properties.length == 0) {
+            throw new IllegalArgumentException("properties is null or empty");
+        }
+        return new CompositeResourceMatcher(name, path, type, allowSubtypes, CompactPropertyMap.of(properties));
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        if (name == null && path == null && type == null && expectedProps == null) {
+            description.appendText("any Resource");
+            return;
+        }
+        description.appendText("Resource with");
+        String separator = " ";
+        if (name != null) {
+            description.appendText(separator + "name ").appendValue(name);
+            separator = " and ";
+        }
+        if (path != null) {
+            description.appendText(separator + "path ").appendValue(path);
+            separator = " and ";
+        }
+        if (type != null) {
+            description.appendText(separator + "type ").appendValue(type);
+            if (allowSubtypes) {
+                description.appendText(" or derived");
+            }
+            separator = " and ";
+        }
+        if (expectedProps != null) {
+            description
+                    .appendText(separator + "properties ")
+                    .appendValueList(
+                            "[", ",", "]", PropertyValues.convertArraysToStrings(expectedProps).entrySet());
+        }
+    }
+
+    @Override
+    protected boolean matchesSafely(Resource item) {
+        Evaluation evaluation = new Evaluation();
+        if (evaluate(item, evaluation, true)) {
+            return true;
+        }
+        mismatches.record(item, evaluation);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(Resource item, Description mismatchDescription) {
+        Evaluation evaluation = mismatches.take(item);
+        if (evaluation == null) {
+            evaluation = new Evaluation();
+        }
+        // continue with the checks skipped while matching
+        evaluate(item, evaluation, false);
+
+        mismatchDescription.appendText("was Resource with ");
+        boolean first = true;
+        for (int check = NAME; check <= PROPERTIES; check++) {
+            if (!evaluation.isFailed(check)) {
+                continue;
+            }
+            if (!first) {
+                mismatchDescription.appendText(", ");
+            }
+            first = false;
+            switch (check) {
+                case NAME:
+                    mismatchDescription.appendText("name ").appendValue(evaluation.actualName);
+                    break;
+                case PATH:
+                    mismatchDescription.appendText("path ").appendValue(evaluation.actualPath);
+                    break;
+                case TYPE:
+                    mismatchDescription.appendText("type ").appendValue(evaluation.actualType);
+                    break;
+                default:
+                    mismatchDescription
+                            .appendText("property ")
+                            .appendValue(evaluation.firstMismatchPropertyName)
+                            .appendText(" ");
+                    PropertyValues.appendValueAndType(
+                            mismatchDescription,
+                            evaluation.actualProperties.get(evaluation.firstMismatchPropertyName));
+                    break;
+            }
+        }
+        mismatchDescription.appendText(" (resource: ").appendValue(item).appendText(")");
+    }
+
+    /**
+     * Evaluates the checks not yet evaluated for the given evaluation.
+     * @param item the resource
+     * @param evaluation the state of the evaluation
+     * @param failFast whether to stop at the first failing check
+     * @return {@code true} if all checks evaluated so far succeeded
+     */
+    private boolean evaluate(Resource item, Evaluation evaluation, boolean failFast) {
+        while (evaluation.nextCheck <= PROPERTIES) {
+            int check = evaluation.nextCheck++;
+            if (!check(check, item, evaluation)) {
+                evaluation.failedChecks |= 1 << check;
+                if (failFast) {
+                    return false;
+                }
+            }
+        }
+        return evaluation.failedChecks == 0;
+    }
+
+    private boolean check(int check, Resource item, Evaluation evaluation) {
+        switch (check) {
+            case NAME:
+                if (name == null) {
+                    return true;
+                }
+                evaluation.actualName = item.getName();
+                return name.equals(evaluation.actualName);
+            case PATH:
+                if (path == null) {
+                    return true;
+                }
+                evaluation.actualPath = item.getPath();
+                return path.equals(evaluation.actualPath);
+            case TYPE:
+                if (type == null) {
+                    return true;
+                }
+                evaluation.actualType = item.getResourceType();
+                // only walk the super types if the resource type itself does not match
+                return type.equals(evaluation.actualType) || (allowSubtypes && item.isResourceType(type));
+            default:
+                if (expectedProps == null) {
+                    return true;
+                }
+                evaluation.actualProperties = item.getValueMap();
+                evaluation.firstMismatchPropertyName =
+                        PropertyValues.firstMismatchName(expectedProps, evaluation.actualProperties);
+                return evaluation.firstMismatchPropertyName == null;
+        }
+    }
+
+    /**
+     * The values observed while evaluating one resource.
+     */
+    private static final class Evaluation {
+
+        private int nextCheck = NAME;
+        private int failedChecks;
+        private String actualName;
+        private String actualPath;
+        private String actualType;
+        private Map<String, Object> actualProperties;
+        private String firstMismatchPropertyName;
+
+        boolean isFailed(int check) {
+            return (failedChecks & (1 << check)) != 0;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Remembers what a matcher observed while evaluating an item, so that a subsequent {@code describeMismatch} call
+ * for the very same item can be answered without evaluating (or, for iterators, consuming) it again.
+ *
+ * <p>Matcher instances are commonly shared, therefore the observation is kept per thread and never in a field of
+ * the matcher itself. Only mismatches should be recorded, which keeps the successful path free of any overhead.</p>
+ *
+ * <p>The record is best-effort: each thread keeps at most one entry, which is overwritten by the next mismatch
+ * recorded on that thread, so callers must be able to fall back to evaluating the item again if {@link #take(Object)}
+ * returns {@code null}. An entry which is never taken stays until it is overwritten or the thread ends; it holds the
+ * item only weakly, but the observation strongly.</p>
+ *
+ * @param <T> the type of the observation
+ */
+final class EvaluationRecord<T> {
+
+    private final ThreadLocal<Entry<T>> entries = new ThreadLocal<>();
+
+    /**
+     * Records an observation for the given item, replacing any previous observation of the current thread.
+     * @param item the evaluated item
+     * @param observation the observation
+     */
+    void record(Object item, T observation) {
+        entries.set(new Entry<>(item, observation));
+    }
+
+    /**
+     * Returns and forgets the observation previously recorded by the current thread for the given item.
+     * @param item the evaluated item
+     * @return the observation or {@code null} if the last recorded observation was for another item (or none was
+     *     recorded at all)
+     */
+    T take(Object item) {
+        Entry<T> entry = entries.get();
+        if (entry == null || entry.item.get() != item) {
+            return null;
+        }
+        entries.remove();
+        return entry.observation;
+    }
+
+    private static final class Entry<T> {
+
+        private final WeakReference<Object> item;
+        private final T observation;
+
+        Entry(Object item, T observation) {
+            this.item = new WeakReference<>(item);
+            this.observation = observation;
+        }
+    }
+}
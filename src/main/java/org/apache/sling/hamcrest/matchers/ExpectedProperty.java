@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import org.apache.sling.api.resource.ValueMap;
+import org.hamcrest.Matcher;
+
+/**
+ * A matcher for a single property, optionally for its value converted to a given type with
+ * {@link ValueMap#get(String, Class)}, to be combined with others in a {@link ResourcePropertiesMatchingMatcher}.
+ * Instances are immutable.
+ *
+ * @since 1.2.0
+ */
+public final class ExpectedProperty {
+
+    private final String name;
+    private final Class<?> type;
+    private final Matcher<?> matcher;
+
+    ExpectedProperty(String name, Class<?> type, Matcher<?> matcher) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name is null or empty");
+        }
+        if (matcher == null) {
+            throw new IllegalArgumentException("matcher is null");
+        }
+        this.name = name;
+        this.type = type;
+        this.matcher = matcher;
+    }
+
+    /**
+     * @param name the property name
+     * @param matcher the matcher for the raw property value, which is {@code null} if the property is missing
+     * @return the expected property
+     */
+    public static ExpectedProperty of(String name, Matcher<?> matcher) {
+        return new ExpectedProperty(name, null, matcher);
+    }
+
+    /**
+     * @param name the property name
+     * @param type the type to convert the property value to
+     * @param matcher the matcher for the converted property value, which is {@code null} if the property is missing
+     *     or cannot be converted
+     * @param <T> the type of the converted property value
+     * @return the expected property
+     */
+    public static <T> ExpectedProperty of(String name, Class<T> type, Matcher<? super T> matcher) {
+        if (type == null) {
+            throw new IllegalArgumentException("type is null");
+        }
+        return new ExpectedProperty(name, type, matcher);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * @return the type to convert the value to or {@code null} to match the raw value
+     */
+    Class<?> getType() {
+        return type;
+    }
+
+    Matcher<?> getMatcher() {
+        return matcher;
+    }
+}
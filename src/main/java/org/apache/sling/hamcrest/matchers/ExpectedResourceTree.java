@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Specification of an expected resource (sub)tree for {@link ResourceTreeMatcher}.
+ *
+ * <p>Each node may specify the expected resource type, the expected properties and the expected children by name.
+ * Nodes are built fluently and copied when a matcher is created, so changing a node afterwards does not affect
+ * existing matchers.</p>
+ * <pre>
+ * ExpectedResourceTree expected = ExpectedResourceTree.node()
+ *         .resourceType("my/page")
+ *         .child("jcr:content", ExpectedResourceTree.node()
+ *                 .props("jcr:title", "Home")
+ *                 .child("par"));
+ * </pre>
+ *
+ * @since 1.2.0
+ */
+public final class ExpectedResourceTree {
+
+    private String resourceType;
+    private CompactPropertyMap properties;
+    private final Map<String, ExpectedResourceTree> children = new LinkedHashMap<String, ExpectedResourceTree>();
+    private boolean exactChildren;
+
+    private ExpectedResourceTree() {
+        // use node()
+    }
+
+    /**
+     * @return a new node without any expectations, matching every resource
+     */
+    public static ExpectedResourceTree node() {
+        return new ExpectedResourceTree();
+    }
+
+    /**
+     * @param resourceType the expected resource type (exactly)
+     * @return this node
+     */
+    public ExpectedResourceTree resourceType(String resourceType) {
+        if (resourceType == null) {
+            throw new IllegalArgumentException("resourceType is null");
+        }
+        this.resourceType = resourceType;
+        return this;
+    }
+
+    /**
+     * @param properties the properties the resource must have at least, with equal values
+     * @return this node
+     */
+    public ExpectedResourceTree props(Map<String, Object> properties) {
+        if (properties == null || properties.isEmpty()) {
+            throw new IllegalArgumentException("properties is null or empty");
+        }
+        this.properties = CompactPropertyMap.copyOf(properties);
+        return this;
+    }
+
+    /**
+     * @param properties the properties the resource must have at least, as alternating names and values
+     * @return this node
+     */
+    public ExpectedResourceTree props(Object... properties) {
+        if (properties == null || properties.length == 0) {
+            throw new IllegalArgumentException("properties is null or empty");
+        }
+        this.properties = CompactPropertyMap.of(properties);
+        return this;
+    }
+
+    /**
+     * @param name the name of a child which must exist, without further expectations
+     * @return this node
+     */
+    public ExpectedResourceTree child(String name) {
+        return child(name, node());
+    }
+
+    /**
+     * @param name the name of a child which must exist
+     * @param child the expectations for that child
+     * @return this node
+     */
+    public ExpectedResourceTree child(String name, ExpectedResourceTree child) {
+        if (name == null || name.isEmpty() || name.indexOf('/') >= 0) {
+            throw new IllegalArgumentException("invalid child name: " + name);
+        }
+        if (child == null) {
+            throw new IllegalArgumentException("child is null");
+        }
+        children.put(name, child);
+        return this;
+    }
+
+    /**
+     * Requires the resource to have no other children than the ones specified via {@link #child(String)}.
+     * @return this node
+     */
+    public ExpectedResourceTree exactChildren() {
+        this.exactChildren = true;
+        return this;
+    }
+
+    String getResourceType() {
+        return resourceType;
+    }
+
+    CompactPropertyMap getProperties() {
+        return properties;
+    }
+
+    Map<String, ExpectedResourceTree> getChildren() {
+        return Collections.unmodifiableMap(children);
+    }
+
+    boolean isExactChildren() {
+        return exactChildren;
+    }
+}
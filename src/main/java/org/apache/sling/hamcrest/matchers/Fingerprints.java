@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+/**
+ * 64 bit fingerprints of names and property values.
+ *
+ * <p>Fingerprints are consistent with {@link PropertyValues#valueEquals(Object, Object)}: equal values always have
+ * equal fingerprints, e.g. a {@code long[]} and a {@code Long[]} with the same items. Strings, boxed primitives and
+ * arrays of them are fingerprinted from all their bits together with a type tag, so values which are not equal,
+ * e.g. an {@code Integer} and a {@code Long}, only have equal fingerprints by chance. Values of other types are
+ * fingerprinted from their hash code only, see {@link #isExact(Object)}.</p>
+ */
+final class Fingerprints {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    // type tags, mixed into the fingerprints of values of different types which are never equal
+    private static final long ARRAY = of("array");
+    private static final long STRING = of("String");
+    private static final long LONG = of("Long");
+    private static final long INTEGER = of("Integer");
+    private static final long DOUBLE = of("Double");
+    private static final long BOOLEAN = of("Boolean");
+    private static final long FLOAT = of("Float");
+    private static final long SHORT = of("Short");
+    private static final long BYTE = of("Byte");
+    private static final long CHARACTER = of("Character");
+    private static final long OBJECT = of("Object");
+
+    private Fingerprints() {
+        // static methods only
+    }
+
+    /**
+     * @param hash a hash
+     * @return the hash with its bits well distributed (finalizer of SplitMix64)
+     */
+    static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * @param hash the hash so far
+     * @param value the next value
+     * @return the combined hash, depending on the order of the combined values
+     */
+    static long combine(long hash, long value) {
+        return mix(hash * SEED + value);
+    }
+
+    /**
+     * @param value a string, may be {@code null}
+     * @return the 64 bit FNV-1a hash of the characters
+     */
+    static long of(String value) {
+        if (value == null) {
+            return 0L;
+        }
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * @param value a property value, may be {@code null}
+     * @return the fingerprint of the value, arrays are fingerprinted item by item
+     */
+    static long ofValue(Object value) {
+        if (value == null || !value.getClass().isArray()) {
+            return ofItem(value);
+        }
+        // items are fingerprinted like their boxed counterparts, so that e.g. long[] and Long[] are consistent
+        long hash = ARRAY;
+        if (value instanceof Object[]) {
+            for (Object item : (Object[]) value) {
+                hash = combine(hash, ofItem(item));
+            }
+        } else if (value instanceof long[]) {
+            for (long item : (long[]) value) {
+                hash = combine(hash, combine(LONG, item));
+            }
+        } else if (value instanceof int[]) {
+            for (int item : (int[]) value) {
+                hash = combine(hash, combine(INTEGER, item));
+            }
+        } else if (value instanceof double[]) {
+            for (double item : (double[]) value) {
+                hash = combine(hash, combine(DOUBLE, Double.doubleToLongBits(item)));
+            }
+        } else if (value instanceof boolean[]) {
+            for (boolean item : (boolean[]) value) {
+                hash = combine(hash, combine(BOOLEAN, item ? 1L : 0L));
+            }
+        } else if (value instanceof float[]) {
+            for (float item : (float[]) value) {
+                hash = combine(hash, combine(FLOAT, Float.floatToIntBits(item)));
+            }
+        } else if (value instanceof short[]) {
+            for (short item : (short[]) value) {
+                hash = combine(hash, combine(SHORT, item));
+            }
+        } else if (value instanceof byte[]) {
+            for (byte item : (byte[]) value) {
+                hash = combine(hash, combine(BYTE, item));
+            }
+        } else {
+            for (char item : (char[]) value) {
+                hash = combine(hash, combine(CHARACTER, item));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @param value a property value, may be {@code null}
+     * @return {@code true} if the fingerprint of the value is derived from all of its bits, {@code false} if it is
+     *     derived from {@link Object#hashCode()} only, so that equal fingerprints are no evidence of equal values
+     */
+    static boolean isExact(Object value) {
+        if (value instanceof Object[]) {
+            for (Object item : (Object[]) value) {
+                if (!isExactItem(item)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return value == null || value.getClass().isArray() || isExactItem(value);
+    }
+
+    private static boolean isExactItem(Object value) {
+        return value == null
+                || value instanceof String
+                || value instanceof Long
+                || value instanceof Integer
+                || value instanceof Double
+                || value instanceof Boolean
+                || value instanceof Float
+                || value instanceof Short
+                || value instanceof Byte
+                || value instanceof Character;
+    }
+
+    /**
+     * Fingerprints a single value, tagged with its type, as values of different types are never equal.
+     */
+    private static long ofItem(Object value) {
+        if (value == null) {
+            return 0L;
+        } else if (value instanceof String) {
+            return combine(STRING, of((String) value));
+        } else if (value instanceof Long) {
+            return combine(LONG, (Long) value);
+        } else if (value instanceof Integer) {
+            return combine(INTEGER, (Integer) value);
+        } else if (value instanceof Double) {
+            return combine(DOUBLE, Double.doubleToLongBits((Double) value));
+        } else if (value instanceof Boolean) {
+            return combine(BOOLEAN, (Boolean) value ? 1L : 0L);
+        } else if (value instanceof Float) {
+            return combine(FLOAT, Float.floatToIntBits((Float) value));
+        } else if (value instanceof Short) {
+            return combine(SHORT, (Short) value);
+        } else if (value instanceof Byte) {
+            return combine(BYTE, (Byte) value);
+        } else if (value instanceof Character) {
+            return combine(CHARACTER, (Character) value);
+        }
+        // other types may be equal to instances of other classes, e.g. calendars, so only the hash code is used
+        return combine(OBJECT, value.hashCode());
+    }
+}
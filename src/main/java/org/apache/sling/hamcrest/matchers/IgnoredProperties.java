@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Names of properties to ignore when comparing properties, either exact names like {@code jcr:uuid} or prefixes
+ * ending with {@code *} like {@code jcr:*}. Instances are immutable.
+ *
+ * @since 1.2.0
+ */
+public final class IgnoredProperties {
+
+    private static final IgnoredProperties NONE = new IgnoredProperties(List.of());
+
+    private final List<String> patterns;
+    private final Set<String> names = new HashSet<>();
+    private final List<String> prefixes = new ArrayList<>();
+
+    private IgnoredProperties(List<String> patterns) {
+        this.patterns = patterns;
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("pattern is null or empty");
+            }
+            if (pattern.endsWith("*")) {
+                prefixes.add(pattern.substring(0, pattern.length() - 1));
+            } else {
+                names.add(pattern);
+            }
+        }
+    }
+
+    /**
+     * @param patterns property names, or prefixes followed by {@code *}
+     * @return the ignored properties
+     */
+    public static IgnoredProperties of(String... patterns) {
+        if (patterns == null) {
+            throw new IllegalArgumentException("patterns is null");
+        }
+        if (patterns.length == 0) {
+            return NONE;
+        }
+        // copied without List.copyOf, which would reject a null pattern with a NullPointerException
+        return new IgnoredProperties(Collections.unmodifiableList(new ArrayList<>(Arrays.asList(patterns))));
+    }
+
+    /**
+     * @return an instance ignoring no property
+     */
+    public static IgnoredProperties none() {
+        return NONE;
+    }
+
+    /**
+     * @param name a property name
+     * @return {@code true} if the property is ignored
+     */
+    public boolean contains(String name) {
+        if (names.contains(name)) {
+            return true;
+        }
+        for (int i = 0; i < prefixes.size(); i++) {
+            if (name.startsWith(prefixes.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isEmpty() {
+        return patterns.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return patterns.toString();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upper bound for a latency percentile, e.g. the 99th percentile must not exceed 5 ms.
+ *
+ * @since 1.2.0
+ */
+public final class LatencyBound {
+
+    private final double percentile;
+    private final long duration;
+    private final TimeUnit unit;
+
+    /**
+     * @param percentile the percentile, greater than 0 and at most 100
+     * @param duration the maximum latency for the percentile
+     * @param unit the unit of {@code duration}
+     */
+    public LatencyBound(double percentile, long duration, TimeUnit unit) {
+        if (!(percentile > 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("percentile is not within (0, 100]: " + percentile);
+        }
+        if (duration < 0) {
+            throw new IllegalArgumentException("duration is negative");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit is null");
+        }
+        this.percentile = percentile;
+        this.duration = duration;
+        this.unit = unit;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public long getNanos() {
+        return unit.toNanos(duration);
+    }
+
+    @Override
+    public String toString() {
+        return percentileName(percentile) + " within " + duration + " " + unitName(unit);
+    }
+
+    /**
+     * @param percentile a percentile
+     * @return the short name of the percentile, e.g. {@code p99} or {@code p99.9}
+     */
+    static String percentileName(double percentile) {
+        return "p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * @param nanos a latency
+     * @return the latency in a readable unit, e.g. {@code 1.250 ms}
+     */
+    static String formatNanos(long nanos) {
+        if (nanos < 1_000L) {
+            return nanos + " ns";
+        } else if (nanos < 1_000_000L) {
+            return String.format(Locale.ROOT, "%.3f us", nanos / 1e3);
+        } else if (nanos < 1_000_000_000L) {
+            return String.format(Locale.ROOT, "%.3f ms", nanos / 1e6);
+        }
+        return String.format(Locale.ROOT, "%.3f s", nanos / 1e9);
+    }
+
+    private static String unitName(TimeUnit unit) {
+        switch (unit) {
+            case NANOSECONDS:
+                return "ns";
+            case MICROSECONDS:
+                return "us";
+            case MILLISECONDS:
+                return "ms";
+            case SECONDS:
+                return "s";
+            case MINUTES:
+                return "min";
+            case HOURS:
+                return "h";
+            default:
+                return "d";
+        }
+    }
+}
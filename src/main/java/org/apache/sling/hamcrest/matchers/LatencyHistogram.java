@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+/**
+ * Histogram of latencies in nanoseconds with a fixed number of log-linear buckets.
+ *
+ * <p>Values below {@value #LINEAR_BUCKETS} are counted exactly, larger ones in buckets whose width is at most 1/64 of
+ * their lower bound, so percentiles are accurate to about 1.6%. Recording a value does not allocate. Not thread-safe.
+ * </p>
+ */
+final class LatencyHistogram {
+
+    static final int LINEAR_BUCKETS = 128;
+
+    private static final int SUB_BUCKETS = LINEAR_BUCKETS / 2;
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    private static final int BUCKETS = LINEAR_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * @param nanos a latency, negative values are counted as 0
+     */
+    void record(long nanos) {
+        long value = Math.max(nanos, 0L);
+        counts[bucket(value)]++;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the smallest value such that at least the given percentage of all recorded values are less than or
+     *     equal to it, rounded up to the upper bound of its bucket but never above the maximum
+     */
+    long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.max(Math.min(upperBound(bucket), max), getMin());
+            }
+        }
+        return max;
+    }
+
+    static int bucket(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        // keep the SUB_BUCKET_BITS + 1 most significant bits
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        long lowerBound = subBucket << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Matcher which runs an operation repeatedly and matches whenever the measured latencies are within all given
+ * percentile bounds.
+ *
+ * <p>The operation is first run for the given number of warm-up iterations without measuring. The latencies of
+ * the subsequent measurement iterations are recorded in a histogram with fixed buckets, so measuring does not
+ * allocate. On a mismatch the full percentile breakdown is reported, from the measurement made while matching.</p>
+ *
+ * @since 1.2.0
+ */
+public class LatencyMatcher extends TypeSafeMatcher<Runnable> {
+
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final List<LatencyBound> bounds;
+    private final EvaluationRecord<LatencyHistogram> histograms = new EvaluationRecord<>();
+
+    /**
+     * @param warmupIterations the number of runs before measuring
+     * @param measurementIterations the number of measured runs
+     * @param bounds the latency bounds, at least one
+     */
+    public LatencyMatcher(int warmupIterations, int measurementIterations, LatencyBound... bounds) {
+        if (warmupIterations < 0) {
+            throw new IllegalArgumentException("warmupIterations is negative");
+        }
+        if (measurementIterations <= 0) {
+            throw new IllegalArgumentException("measurementIterations is not positive");
+        }
+        if (bounds == null || bounds.length == 0) {
+            throw new IllegalArgumentException("bounds is null or empty");
+        }
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.bounds = List.copyOf(Arrays.asList(bounds));
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("operation running with ");
+        for (int i = 0; i < bounds.size(); i++) {
+            description.appendText(i > 0 ? " and " : "").appendText(bounds.get(i).toString());
+        }
+        description.appendText(" over " + measurementIterations + " runs");
+    }
+
+    @Override
+    protected boolean matchesSafely(Runnable item) {
+        LatencyHistogram histogram = measure(item);
+        if (violations(histogram).isEmpty()) {
+            return true;
+        }
+        histograms.record(item, histogram);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(Runnable item, Description mismatchDescription) {
+        LatencyHistogram histogram = histograms.take(item);
+        if (histogram == null) {
+            histogram = measure(item);
+        }
+        List<LatencyBound> violations = violations(histogram);
+        for (int i = 0; i < violations.size(); i++) {
+            double percentile = violations.get(i).getPercentile();
+            mismatchDescription
+                    .appendText(i > 0 ? ", " : "")
+                    .appendText(LatencyBound.percentileName(percentile))
+                    .appendText(" was ")
+                    .appendText(LatencyBound.formatNanos(histogram.getValueAtPercentile(percentile)));
+        }
+        if (violations.isEmpty()) {
+            mismatchDescription.appendText("all bounds were met when measuring again");
+        }
+
+        TreeSet<Double> percentiles = new TreeSet<>();
+        for (double percentile : REPORTED_PERCENTILES) {
+            percentiles.add(percentile);
+        }
+        for (LatencyBound bound : bounds) {
+            percentiles.add(bound.getPercentile());
+        }
+        mismatchDescription.appendText(" (min=" + LatencyBound.formatNanos(histogram.getMin()));
+        for (double percentile : percentiles) {
+            mismatchDescription.appendText(", " + LatencyBound.percentileName(percentile) + "="
+                    + LatencyBound.formatNanos(histogram.getValueAtPercentile(percentile)));
+        }
+        mismatchDescription.appendText(
+                ", max=" + LatencyBound.formatNanos(histogram.getMax()) + ", runs=" + histogram.getCount() + ")");
+    }
+
+    private LatencyHistogram measure(Runnable operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run();
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < measurementIterations; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            histogram.record(System.nanoTime() - start);
+        }
+        return histogram;
+    }
+
+    private List<LatencyBound> violations(LatencyHistogram histogram) {
+        List<LatencyBound> violations = new ArrayList<>();
+        for (LatencyBound bound : bounds) {
+            if (histogram.getValueAtPercentile(bound.getPercentile()) > bound.getNanos()) {
+                violations.add(bound);
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes a minimal line diff with the algorithm of Eugene W. Myers ("An O(ND) Difference Algorithm and Its
+ * Variations"), after trimming the common prefix and suffix.
+ */
+final class LineDiff {
+
+    /**
+     * Upper bound for the edit distance searched for a minimal diff, limiting time and memory to roughly the square
+     * of this value. Beyond that, the whole differing region is reported as replaced.
+     */
+    static final int MAX_EDIT_DISTANCE = 2000;
+
+    private LineDiff() {
+        // static methods only
+    }
+
+    /**
+     * @param expected the expected lines
+     * @param actual the actual lines
+     * @return the differing lines, formatted as {@code -<line number>: <line>} for expected lines missing in the
+     *     actual ones and {@code +<line number>: <line>} for additional actual lines
+     */
+    static List<String> diff(List<String> expected, List<String> actual) {
+        int start = 0;
+        while (start < expected.size() && start < actual.size() && expected.get(start).equals(actual.get(start))) {
+            start++;
+        }
+        int expectedEnd = expected.size();
+        int actualEnd = actual.size();
+        while (expectedEnd > start
+                && actualEnd > start
+                && expected.get(expectedEnd - 1).equals(actual.get(actualEnd - 1))) {
+            expectedEnd--;
+            actualEnd--;
+        }
+        List<String> a = expected.subList(start, expectedEnd);
+        List<String> b = actual.subList(start, actualEnd);
+
+        List<String> result = new ArrayList<>();
+        List<int[]> trace = shortestEditTrace(a, b);
+        if (trace == null) {
+            for (int i = 0; i < a.size(); i++) {
+                result.add(format('-', start + i, a.get(i)));
+            }
+            for (int i = 0; i < b.size(); i++) {
+                result.add(format('+', start + i, b.get(i)));
+            }
+            return result;
+        }
+
+        // walk the trace backwards, collecting the edits in reverse order
+        List<String> reversed = new ArrayList<>();
+        int x = a.size();
+        int y = b.size();
+        for (int d = trace.size() - 1; d > 0; d--) {
+            int[] v = trace.get(d - 1);
+            int k = x - y;
+            int previousK = k == -d || (k != d && get(v, d - 1, k - 1) < get(v, d - 1, k + 1)) ? k + 1 : k - 1;
+            int previousX = get(v, d - 1, previousK);
+            int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                x--;
+                y--;
+            }
+            if (x == previousX) {
+                reversed.add(format('+', start + previousY, b.get(previousY)));
+            } else {
+                reversed.add(format('-', start + previousX, a.get(previousX)));
+            }
+            x = previousX;
+            y = previousY;
+        }
+        for (int i = reversed.size() - 1; i >= 0; i--) {
+            result.add(reversed.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return for each edit distance d the furthest reaching x values of the diagonals -d..d, or {@code null} if
+     *     the edit distance exceeds {@link #MAX_EDIT_DISTANCE}
+     */
+    private static List<int[]> shortestEditTrace(List<String> a, List<String> b) {
+        int n = a.size();
+        int m = b.size();
+        List<int[]> trace = new ArrayList<>();
+        int[] previous = new int[] {0};
+        for (int d = 0; d <= Math.min(n + m, MAX_EDIT_DISTANCE); d++) {
+            int[] v = new int[2 * d + 1];
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (d == 0) {
+                    x = 0;
+                } else if (k == -d || (k != d && get(previous, d - 1, k - 1) < get(previous, d - 1, k + 1))) {
+                    x = get(previous, d - 1, k + 1);
+                } else {
+                    x = get(previous, d - 1, k - 1) + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && a.get(x).equals(b.get(y))) {
+                    x++;
+                    y++;
+                }
+                v[k + d] = x;
+                if (x >= n && y >= m) {
+                    trace.add(v);
+                    return trace;
+                }
+            }
+            trace.add(v);
+            previous = v;
+        }
+        return null;
+    }
+
+    private static int get(int[] v, int d, int k) {
+        return v[k + d];
+    }
+
+    private static String format(char operation, int index, String line) {
+        return operation + String.valueOf(index + 1) + ": " + line;
+    }
+}
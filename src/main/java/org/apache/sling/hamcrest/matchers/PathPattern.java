@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.hamcrest.Description;
+import org.hamcrest.SelfDescribing;
+import org.hamcrest.StringDescription;
+
+/**
+ * A compiled condition on resource paths, to be created once and shared by any number of matchers.
+ *
+ * <p>Globs and regular expressions are compiled to a {@link Pattern}. Root paths are stored in a trie of path
+ * segments, so that checking whether a path is below any of them costs time proportional to the depth of the path
+ * and not to the number of roots. Instances are immutable and thread-safe.</p>
+ *
+ * @since 1.2.0
+ */
+public final class PathPattern implements SelfDescribing {
+
+    /** The maximum number of root paths listed in descriptions. */
+    private static final int MAX_LISTED_ROOTS = 10;
+
+    private final String kind;
+    private final String source;
+    private final Pattern pattern;
+    private final PathTrie roots;
+    private final List<String> rootList;
+
+    private PathPattern(String kind, String source, Pattern pattern, PathTrie roots, List<String> rootList) {
+        this.kind = kind;
+        this.source = source;
+        this.pattern = pattern;
+        this.roots = roots;
+        this.rootList = rootList;
+    }
+
+    /**
+     * Compiles a glob, which must match the whole path. Supported are
+     * <ul>
+     * <li>{@code *} matching any characters except {@code /}, i.e. within one path segment</li>
+     * <li>{@code ?} matching exactly one character except {@code /}</li>
+     * <li>{@code **} matching any characters including {@code /}, while {@code **&#47;} matches zero or more whole
+     * path segments</li>
+     * </ul>
+     * E.g. {@code /content/site/*&#47;jcr:content} or {@code **&#47;jcr:content/**}.
+     * @param glob the glob
+     * @return the compiled pattern
+     */
+    public static PathPattern glob(String glob) {
+        if (glob == null || glob.isEmpty()) {
+            throw new IllegalArgumentException("glob is null or empty");
+        }
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c != '*' && c != '?') {
+                literal.append(c);
+                continue;
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            if (c == '?') {
+                regex.append("[^/]");
+            } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                i++;
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '/') {
+                    i++;
+                    regex.append("(?:.*/)?");
+                } else {
+                    regex.append(".*");
+                }
+            } else {
+                regex.append("[^/]*");
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return new PathPattern("path matching ", glob, Pattern.compile(regex.toString()), null, null);
+    }
+
+    /**
+     * @param regex a regular expression, which must match the whole path
+     * @return the compiled pattern
+     */
+    public static PathPattern regex(String regex) {
+        if (regex == null || regex.isEmpty()) {
+            throw new IllegalArgumentException("regex is null or empty");
+        }
+        return new PathPattern("path matching regex ", regex, Pattern.compile(regex), null, null);
+    }
+
+    /**
+     * @param roots absolute root paths
+     * @return a pattern matching the root paths themselves and all paths below them
+     */
+    public static PathPattern under(String... roots) {
+        if (roots == null) {
+            throw new IllegalArgumentException("roots is null or empty");
+        }
+        return under(Arrays.asList(roots));
+    }
+
+    /**
+     * @param roots absolute root paths
+     * @return a pattern matching the root paths themselves and all paths below them
+     */
+    public static PathPattern under(Collection<String> roots) {
+        if (roots == null || roots.isEmpty()) {
+            throw new IllegalArgumentException("roots is null or empty");
+        }
+        PathTrie trie = new PathTrie();
+        for (String root : roots) {
+            trie.add(root);
+        }
+        return new PathPattern("path under ", null, null, trie, List.copyOf(roots));
+    }
+
+    /**
+     * @param path an absolute resource path
+     * @return {@code true} if the path matches
+     */
+    public boolean matches(String path) {
+        if (pattern != null) {
+            return pattern.matcher(path).matches();
+        }
+        return roots.containsPrefixOf(path);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText(kind);
+        if (pattern == null) {
+            if (rootList.size() <= MAX_LISTED_ROOTS) {
+                description.appendValueList("[", ", ", "]", rootList);
+            } else {
+                description.appendValueList(
+                        "[", ", ", ", ... (" + rootList.size() + " roots)]", rootList.subList(0, MAX_LISTED_ROOTS));
+            }
+        } else {
+            description.appendValue(source);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return StringDescription.toString(this);
+    }
+
+    /**
+     * Trie of path segments, with each node marking whether it is the last segment of a root path.
+     */
+    static final class PathTrie {
+
+        private final Node root = new Node();
+
+        void add(String path) {
+            if (path == null || !path.startsWith("/")) {
+                throw new IllegalArgumentException("root path is not absolute: " + path);
+            }
+            Node node = root;
+            int start = 1;
+            while (start < path.length()) {
+                int end = path.indexOf('/', start);
+                if (end < 0) {
+                    end = path.length();
+                }
+                if (end > start) {
+                    node = node.child(path.substring(start, end));
+                }
+                start = end + 1;
+            }
+            node.terminal = true;
+        }
+
+        /**
+         * @param path an absolute path
+         * @return {@code true} if any of the added paths is the path itself or one of its ancestors
+         */
+        boolean containsPrefixOf(String path) {
+            if (!path.startsWith("/")) {
+                return false;
+            }
+            Node node = root;
+            int start = 1;
+            while (!node.terminal) {
+                if (start >= path.length()) {
+                    return false;
+                }
+                int end = path.indexOf('/', start);
+                if (end < 0) {
+                    end = path.length();
+                }
+                node = node.children != null ? node.children.get(path.substring(start, end)) : null;
+                if (node == null) {
+                    return false;
+                }
+                start = end + 1;
+            }
+            return true;
+        }
+
+        private static final class Node {
+
+            private Map<String, Node> children;
+            private boolean terminal;
+
+            Node child(String segment) {
+                if (children == null) {
+                    children = new HashMap<>();
+                }
+                return children.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.hamcrest.Description;
+
+/**
+ * Comparison and formatting of property values, including multi-value properties.
+ *
+ * <p>Arrays are compared item by item with the same semantics as comparing the boxed items with
+ * {@link Object#equals(Object)}, e.g. a {@code long[]} equals a {@code Long[]} with the same values, while a
+ * {@code long[]} never equals an {@code int[]}. Primitive arrays are compared without boxing any item.</p>
+ */
+final class PropertyValues {
+
+    private PropertyValues() {
+        // static methods only
+    }
+
+    /**
+     * @param expected the expected value, may be {@code null}
+     * @param actual the actual value, may be {@code null}
+     * @return {@code true} if both values are equal, arrays are compared item by item
+     */
+    static boolean valueEquals(Object expected, Object actual) {
+        if (expected == actual) {
+            return true;
+        }
+        if (expected == null || actual == null) {
+            return false;
+        }
+        if (expected.getClass().isArray() && actual.getClass().isArray()) {
+            return arrayEquals(expected, actual);
+        }
+        return expected.equals(actual);
+    }
+
+    /**
+     * @param expectedProps the expected properties
+     * @param actualProps the actual properties
+     * @return the name of the first expected property whose value is not equal to the actual one or {@code null} if
+     *     all expected properties are matching
+     */
+    static String firstMismatchName(CompactPropertyMap expectedProps, Map<String, Object> actualProps) {
+        for (int i = 0; i < expectedProps.size(); i++) {
+            String name = expectedProps.nameAt(i);
+            if (!valueEquals(expectedProps.valueAt(i), actualProps.get(name))) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param array1 an array, not {@code null}
+     * @param array2 another array, not {@code null}
+     * @return {@code true} if both arrays have the same length and equal items
+     */
+    static boolean arrayEquals(Object array1, Object array2) {
+        if (array1 instanceof Object[]) {
+            if (array2 instanceof Object[]) {
+                return Arrays.equals((Object[]) array1, (Object[]) array2);
+            }
+            return mixedArrayEquals(array2, (Object[]) array1);
+        }
+        if (array2 instanceof Object[]) {
+            return mixedArrayEquals(array1, (Object[]) array2);
+        }
+        if (array1.getClass() != array2.getClass()) {
+            // boxed items of different primitive types are never equal
+            return Array.getLength(array1) == 0 && Array.getLength(array2) == 0;
+        }
+        if (array1 instanceof long[]) {
+            return Arrays.equals((long[]) array1, (long[]) array2);
+        } else if (array1 instanceof int[]) {
+            return Arrays.equals((int[]) array1, (int[]) array2);
+        } else if (array1 instanceof double[]) {
+            return Arrays.equals((double[]) array1, (double[]) array2);
+        } else if (array1 instanceof boolean[]) {
+            return Arrays.equals((boolean[]) array1, (boolean[]) array2);
+        } else if (array1 instanceof float[]) {
+            return Arrays.equals((float[]) array1, (float[]) array2);
+        } else if (array1 instanceof short[]) {
+            return Arrays.equals((short[]) array1, (short[]) array2);
+        } else if (array1 instanceof byte[]) {
+            return Arrays.equals((byte[]) array1, (byte[]) array2);
+        } else {
+            return Arrays.equals((char[]) array1, (char[]) array2);
+        }
+    }
+
+    /**
+     * Compares a primitive array with an object array, e.g. {@code long[]} with {@code Long[]}.
+     */
+    private static boolean mixedArrayEquals(Object primitives, Object[] objects) {
+        int length = objects.length;
+        if (Array.getLength(primitives) != length) {
+            return false;
+        }
+        if (primitives instanceof long[]) {
+            long[] values = (long[]) primitives;
+            for (int i = 0; i < length; i++) {
+                if (!(objects[i] instanceof Long) || ((Long) objects[i]).longValue() != values[i]) {
+                    return false;
+                }
+            }
+        } else if (primitives instanceof int[]) {
+            int[] values = (int[]) primitives;
+            for (int i = 0; i < length; i++) {
+                if (!(objects[i] instanceof Integer) || ((Integer) objects[i]).intValue() != values[i]) {
+                    return false;
+                }
+            }
+        } else if (primitives instanceof double[]) {
+            double[] values = (double[]) primitives;
+            for (int i = 0; i < length; i++) {
+                // same semantics as Double.equals
+                if (!(objects[i] instanceof Double)
+                        || Double.doubleToLongBits((Double) objects[i]) != Double.doubleToLongBits(values[i])) {
+                    return false;
+                }
+            }
+        } else if (primitives instanceof boolean[]) {
+            boolean[] values = (boolean[]) primitives;
+            for (int i = 0; i < length; i++) {
+                if (!(objects[i] instanceof Boolean) || ((Boolean) objects[i]).booleanValue() != values[i]) {
+                    return false;
+                }
+            }
+        } else if (primitives instanceof float[]) {
+            float[] values = (float[]) primitives;
+            for (int i = 0; i < length; i++) {
+                // same semantics as Float.equals
+                if (!(objects[i] instanceof Float)
+                        || Float.floatToIntBits((Float) objects[i]) != Float.floatToIntBits(values[i])) {
+                    return false;
+                }
+            }
+        } else if (primitives instanceof short[]) {
+            short[] values = (short[]) primitives;
+            for (int i = 0; i < length; i++) {
+                if (!(objects[i] instanceof Short) || ((Short) objects[i]).shortValue() != values[i]) {
+                    return false;
+                }
+            }
+        } else if (primitives instanceof byte[]) {
+            byte[] values = (byte[]) primitives;
+            for (int i = 0; i < length; i++) {
+                if (!(objects[i] instanceof Byte) || ((Byte) objects[i]).byteValue() != values[i]) {
+                    return false;
+                }
+            }
+        } else {
+            char[] values = (char[]) primitives;
+            for (int i = 0; i < length; i++) {
+                if (!(objects[i] instanceof Character) || ((Character) objects[i]).charValue() != values[i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Formats an array as {@code [item1,item2]}, which gives a better message than the array's {@code toString()}.
+     * @param array an array, not {@code null}
+     * @return the string representation
+     */
+    static String arrayToString(Object array) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        if (array instanceof Object[]) {
+            Object[] values = (Object[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    sb.append(",");
+                }
+                sb.append(values[i] == null ? "null" : values[i].toString());
+            }
+        } else if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(sb, i).append(values[i]);
+            }
+        } else if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(sb, i).append(values[i]);
+            }
+        } else if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(sb, i).append(values[i]);
+            }
+        } else if (array instanceof boolean[]) {
+            boolean[] values = (boolean[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(sb, i).append(values[i]);
+            }
+        } else if (array instanceof float[]) {
+            float[] values = (float[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(sb, i).append(values[i]);
+            }
+        } else if (array instanceof short[]) {
+            short[] values = (short[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(sb, i).append(values[i]);
+            }
+        } else if (array instanceof byte[]) {
+            byte[] values = (byte[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(sb, i).append(values[i]);
+            }
+        } else {
+            char[] values = (char[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(sb, i).append(values[i]);
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    private static StringBuilder appendSeparator(StringBuilder sb, int index) {
+        return index > 0 ? sb.append(",") : sb;
+    }
+
+    static void appendValueAndType(Description mismatchDescription, Object value) {
+        if (value == null) {
+            mismatchDescription.appendText("null");
+        } else {
+            mismatchDescription
+                    .appendText("value ")
+                    .appendValue(value)
+                    .appendText(" of type ")
+                    .appendValue(value.getClass().getName());
+        }
+    }
+
+    /**
+     * Convert arrays to string representation to get better message if comparison fails.
+     * @param props Properties
+     * @return Properties with array values converted to strings
+     */
+    static Map<String, Object> convertArraysToStrings(Map<String, Object> props) {
+        SortedMap<String, Object> transformedProps = new TreeMap<String, Object>();
+        for (Map.Entry<String, Object> entry : props.entrySet()) {
+            Object value = entry.getValue();
+            if (value != null && value.getClass().isArray()) {
+                value = arrayToString(value);
+            }
+            transformedProps.put(entry.getKey(), value);
+        }
+        return transformedProps;
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+
+/**
+ * Counts the calls of {@link Resource} and {@link ResourceResolver} methods, per method name.
+ *
+ * <p>Resources and resource resolvers are wrapped with proxies which count each call before delegating it. Resources,
+ * resource resolvers, iterators and iterables returned by the wrapped objects are wrapped as well, so that e.g. calls
+ * on the children of a wrapped resource are counted too. Objects passed as arguments are unwrapped again before
+ * delegating. Note that wrapped objects can't be cast to their implementation classes.</p>
+ *
+ * <p>Counting is thread-safe and based on {@link LongAdder}s, so it can also be used for concurrent code.</p>
+ *
+ * @since 1.2.0
+ */
+public final class ResourceAccessCounter {
+
+    private final Map<String, LongAdder> resourceCalls = counters(Resource.class);
+    private final Map<String, LongAdder> resolverCalls = counters(ResourceResolver.class);
+
+    /**
+     * @param resource the resource to wrap
+     * @return a resource counting all calls, delegating to the given resource
+     */
+    public Resource wrap(Resource resource) {
+        return wrap(resource, Resource.class, resourceCalls);
+    }
+
+    /**
+     * @param resolver the resource resolver to wrap
+     * @return a resource resolver counting all calls, delegating to the given resource resolver
+     */
+    public ResourceResolver wrap(ResourceResolver resolver) {
+        return wrap(resolver, ResourceResolver.class, resolverCalls);
+    }
+
+    /**
+     * @param method the name of a {@link Resource} method
+     * @return the number of calls of all methods with that name on wrapped resources
+     * @throws IllegalArgumentException if {@link Resource} does not have a method with that name
+     */
+    public long getResourceCalls(String method) {
+        return count(resourceCalls, method, Resource.class);
+    }
+
+    /**
+     * @param method the name of a {@link ResourceResolver} method
+     * @return the number of calls of all methods with that name on wrapped resource resolvers
+     * @throws IllegalArgumentException if {@link ResourceResolver} does not have a method with that name
+     */
+    public long getResolverCalls(String method) {
+        return count(resolverCalls, method, ResourceResolver.class);
+    }
+
+    /**
+     * @return the number of calls by method name for all {@link Resource} methods called at least once
+     */
+    public SortedMap<String, Long> getResourceCallCounts() {
+        return snapshot(resourceCalls);
+    }
+
+    /**
+     * @return the number of calls by method name for all {@link ResourceResolver} methods called at least once
+     */
+    public SortedMap<String, Long> getResolverCallCounts() {
+        return snapshot(resolverCalls);
+    }
+
+    /**
+     * Resets all counts to zero.
+     */
+    public void reset() {
+        resourceCalls.values().forEach(LongAdder::reset);
+        resolverCalls.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * @param type {@link Resource} or {@link ResourceResolver}
+     * @param method a method name
+     * @return {@code true} if the type has a public method with the given name
+     */
+    static boolean hasMethod(Class<?> type, String method) {
+        for (Method candidate : type.getMethods()) {
+            if (candidate.getName().equals(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, LongAdder> counters(Class<?> type) {
+        // all counters are created upfront, so that counting never needs to modify the map
+        Map<String, LongAdder> counters = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            counters.putIfAbsent(method.getName(), new LongAdder());
+        }
+        return Collections.unmodifiableMap(counters);
+    }
+
+    private static long count(Map<String, LongAdder> counters, String method, Class<?> type) {
+        LongAdder counter = counters.get(method);
+        if (counter == null) {
+            throw new IllegalArgumentException(type.getSimpleName() + " has no method " + method);
+        }
+        return counter.sum();
+    }
+
+    private static SortedMap<String, Long> snapshot(Map<String, LongAdder> counters) {
+        SortedMap<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> counter : counters.entrySet()) {
+            long count = counter.getValue().sum();
+            if (count > 0) {
+                counts.put(counter.getKey(), count);
+            }
+        }
+        return counts;
+    }
+
+    private <T> T wrap(T target, Class<T> type, Map<String, LongAdder> counters) {
+        if (target == null || isWrapped(target)) {
+            return target;
+        }
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(), new Class<?>[] {type}, new CountingHandler(target, counters)));
+    }
+
+    private boolean isWrapped(Object object) {
+        return Proxy.isProxyClass(object.getClass()) && Proxy.getInvocationHandler(object) instanceof CountingHandler;
+    }
+
+    private Object wrapResult(Object result, Class<?> returnType) {
+        if (result == null) {
+            return null;
+        }
+        if (returnType == Resource.class) {
+            return wrap((Resource) result);
+        } else if (returnType == ResourceResolver.class) {
+            return wrap((ResourceResolver) result);
+        } else if (returnType == Iterator.class) {
+            return new CountingIterator((Iterator<?>) result);
+        } else if (returnType == Iterable.class) {
+            Iterable<?> iterable = (Iterable<?>) result;
+            return (Iterable<Object>) () -> new CountingIterator(iterable.iterator());
+        }
+        return result;
+    }
+
+    private Object wrapItem(Object item) {
+        if (item instanceof Resource) {
+            return wrap((Resource) item);
+        }
+        return item;
+    }
+
+    private static Object unwrap(Object object) {
+        if (object != null && Proxy.isProxyClass(object.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(object);
+            if (handler instanceof CountingHandler) {
+                return ((CountingHandler) handler).target;
+            }
+        }
+        return object;
+    }
+
+    private final class CountingHandler implements InvocationHandler {
+
+        private final Object target;
+        private final Map<String, LongAdder> counters;
+
+        CountingHandler(Object target, Map<String, LongAdder> counters) {
+            this.target = target;
+            this.counters = counters;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                // equals, hashCode and toString are delegated without counting
+                if (method.getName().equals("equals")) {
+                    return target.equals(unwrap(args[0]));
+                }
+                return method.invoke(target, args);
+            }
+            LongAdder counter = counters.get(method.getName());
+            if (counter != null) {
+                counter.increment();
+            }
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = unwrap(args[i]);
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            return wrapResult(result, method.getReturnType());
+        }
+    }
+
+    private final class CountingIterator implements Iterator<Object> {
+
+        private final Iterator<?> delegate;
+
+        CountingIterator(Iterator<?> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Object next() {
+            return wrapItem(delegate.next());
+        }
+
+        @Override
+        public void remove() {
+            delegate.remove();
+        }
+    }
+}
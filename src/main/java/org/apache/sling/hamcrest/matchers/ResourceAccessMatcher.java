@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Matcher which runs an operation on the given resource or resource resolver, wrapped with a
+ * {@link ResourceAccessCounter}, and matches whenever the operation called the given methods at most the given
+ * number of times in total.
+ *
+ * <p>The operation is run once per evaluation. The counts observed while matching are kept per thread for describing
+ * the mismatch, the operation is not run again for that.</p>
+ *
+ * @param <T> {@link Resource} or {@link ResourceResolver}
+ * @since 1.2.0
+ */
+public class ResourceAccessMatcher<T> extends TypeSafeMatcher<T> {
+
+    private final Class<T> type;
+    private final List<String> methods;
+    private final long maxCalls;
+    private final Consumer<? super T> operation;
+    private final EvaluationRecord<ResourceAccessCounter> counters = new EvaluationRecord<>();
+
+    private ResourceAccessMatcher(
+            Class<T> type, Collection<String> methods, long maxCalls, Consumer<? super T> operation) {
+        super(type);
+        if (methods == null || methods.isEmpty()) {
+            throw new IllegalArgumentException("methods is null or empty");
+        }
+        for (String method : methods) {
+            if (!ResourceAccessCounter.hasMethod(type, method)) {
+                throw new IllegalArgumentException(type.getSimpleName() + " has no method " + method);
+            }
+        }
+        if (maxCalls < 0) {
+            throw new IllegalArgumentException("maxCalls is negative");
+        }
+        if (operation == null) {
+            throw new IllegalArgumentException("operation is null");
+        }
+        this.type = type;
+        this.methods = Collections.unmodifiableList(new ArrayList<>(methods));
+        this.maxCalls = maxCalls;
+        this.operation = operation;
+    }
+
+    /**
+     * @param methods the names of the counted {@link Resource} methods
+     * @param maxCalls the maximum number of calls of these methods
+     * @param operation the operation to run with the wrapped resource
+     * @return a matcher instance
+     */
+    public static ResourceAccessMatcher<Resource> resourceCalls(
+            Collection<String> methods, long maxCalls, Consumer<? super Resource> operation) {
+        return new ResourceAccessMatcher<>(Resource.class, methods, maxCalls, operation);
+    }
+
+    /**
+     * @param methods the names of the counted {@link ResourceResolver} methods
+     * @param maxCalls the maximum number of calls of these methods
+     * @param operation the operation to run with the wrapped resource resolver
+     * @return a matcher instance
+     */
+    public static ResourceAccessMatcher<ResourceResolver> resolverCalls(
+            Collection<String> methods, long maxCalls, Consumer<? super ResourceResolver> operation) {
+        return new ResourceAccessMatcher<>(ResourceResolver.class, methods, maxCalls, operation);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("operation calling " + methodNames() + " at most " + maxCalls + " times");
+    }
+
+    @Override
+    protected boolean matchesSafely(T item) {
+        ResourceAccessCounter counter = run(item);
+        if (calls(counter) <= maxCalls) {
+            return true;
+        }
+        counters.record(item, counter);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(T item, Description mismatchDescription) {
+        ResourceAccessCounter counter = counters.take(item);
+        if (counter == null) {
+            counter = run(item);
+        }
+        Map<String, Long> counts =
+                type == Resource.class ? counter.getResourceCallCounts() : counter.getResolverCallCounts();
+        mismatchDescription.appendText(
+                "called " + methodNames() + " " + calls(counter) + " times (all calls: " + counts + ")");
+    }
+
+    private ResourceAccessCounter run(T item) {
+        ResourceAccessCounter counter = new ResourceAccessCounter();
+        if (type == Resource.class) {
+            operation.accept(type.cast(counter.wrap((Resource) item)));
+        } else {
+            operation.accept(type.cast(counter.wrap((ResourceResolver) item)));
+        }
+        return counter;
+    }
+
+    private long calls(ResourceAccessCounter counter) {
+        long calls = 0;
+        for (String method : methods) {
+            calls += type == Resource.class ? counter.getResourceCalls(method) : counter.getResolverCalls(method);
+        }
+        return calls;
+    }
+
+    private String methodNames() {
+        StringBuilder names = new StringBuilder();
+        for (String method : methods) {
+            if (names.length() > 0) {
+                names.append(" or ");
+            }
+            names.append(type.getSimpleName()).append('.').append(method);
+        }
+        return names.toString();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.Iterator;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Matcher which matches whenever the number of children of the given resource is within the bounds given in the
+ * constructor.
+ *
+ * <p>{@link Resource#hasChildren()} is checked first, and children are only counted up to one more than the upper
+ * bound, so checking a resource with a huge number of children against a small bound stays cheap.</p>
+ */
+public class ResourceChildCountMatcher extends TypeSafeMatcher<Resource> {
+
+    private final int minCount;
+    private final int maxCount;
+    private final EvaluationRecord<Integer> counts = new EvaluationRecord<Integer>();
+
+    public ResourceChildCountMatcher(int minCount, int maxCount) {
+        if (minCount < 0 || maxCount < minCount) {
+            throw new IllegalArgumentException("invalid bounds " + minCount + ".." + maxCount);
+        }
+        this.minCount = minCount;
+        this.maxCount = maxCount;
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        if (maxCount == 0) {
+            description.appendText("Resource without children");
+        } else if (minCount == maxCount) {
+            description.appendText("Resource with " + children(maxCount));
+        } else if (minCount == 0) {
+            description.appendText("Resource with at most " + children(maxCount));
+        } else {
+            description.appendText("Resource with " + minCount + " to " + maxCount + " children");
+        }
+    }
+
+    @Override
+    protected boolean matchesSafely(Resource item) {
+        int count = countChildren(item);
+        if (count >= minCount && count <= maxCount) {
+            return true;
+        }
+        counts.record(item, count);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(Resource item, Description mismatchDescription) {
+        Integer count = counts.take(item);
+        if (count == null) {
+            count = countChildren(item);
+        }
+        if (count > maxCount) {
+            mismatchDescription.appendText("was Resource with more than " + children(maxCount));
+        } else {
+            mismatchDescription.appendText("was Resource with " + children(count));
+        }
+        mismatchDescription.appendText(" (resource: ").appendValue(item).appendText(")");
+    }
+
+    private static String children(int count) {
+        return count + (count == 1 ? " child" : " children");
+    }
+
+    /**
+     * @param item the resource
+     * @return the number of children, but at most {@code maxCount + 1}
+     */
+    private int countChildren(Resource item) {
+        if (!item.hasChildren()) {
+            return 0;
+        }
+        int limit = maxCount < Integer.MAX_VALUE ? maxCount + 1 : maxCount;
+        int count = 0;
+        Iterator<Resource> children = item.listChildren();
+        while (count < limit && children.hasNext()) {
+            children.next();
+            count++;
+        }
+        return count;
+    }
+}
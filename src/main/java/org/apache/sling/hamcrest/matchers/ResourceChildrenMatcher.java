@@ -19,7 +19,9 @@
 package org.apache.sling.hamcrest.matchers;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.sling.api.resource.Resource;
 import org.hamcrest.Description;
@@ -31,6 +33,12 @@ import org.hamcrest.TypeSafeMatcher;
  * Optionally it can match only if the resource's children match exactly the given child names.
  * Also you can validate the order in case of exact matching.
  *
+ * <p>Matching is done in a single pass over the children, looking up each child name in a hash index of the expected
+ * names which is built once per matcher. The children are not buffered, so matching allocates nothing per child.
+ * Only if the children do not match, the diverging child respectively the names of the missing children are
+ * recorded, and the mismatch is described from that record without listing the children again. The descriptions
+ * are the same as with {@code IsIterableContainingInOrder} and {@code IsIterableContainingInAnyOrder}, except that
+ * missing children are reported together with the path of the parent instead of the list of all children.</p>
  */
 public class ResourceChildrenMatcher extends TypeSafeMatcher<Resource> {
 
@@ -38,6 +46,19 @@ public class ResourceChildrenMatcher extends TypeSafeMatcher<Resource> {
     // https://github.com/hamcrest/JavaHamcrest/issues/107 is solved
     private final Matcher<?> iterarableMatcher;
 
+    private final List<String> childNames;
+    private final List<Matcher<? super Resource>> nameMatchers;
+    private final boolean exactMatch;
+    private final boolean validateOrder;
+
+    /** slot index of each distinct expected child name */
+    private final Map<String, Integer> slots;
+    /** number of expected occurrences per slot, always 1 unless duplicate names need to be matched exactly */
+    private final int[] expectedCounts;
+    private final int expectedTotal;
+
+    private final EvaluationRecord<Mismatch> mismatches = new EvaluationRecord<Mismatch>();
+
     public ResourceChildrenMatcher(List<String> childNames, boolean exactMatch, boolean validateOrder) {
         if (childNames == null || childNames.isEmpty()) {
             throw new IllegalArgumentException("childNames is null or empty");
@@ -47,10 +68,30 @@ public class ResourceChildrenMatcher extends TypeSafeMatcher<Resource> {
             throw new IllegalArgumentException("Can only validate the order for exact matches");
         }
 
+        this.childNames = new ArrayList<String>(childNames);
+        this.exactMatch = exactMatch;
+        this.validateOrder = validateOrder;
+
         List<Matcher<? super Resource>> resourceMatchers = new ArrayList<Matcher<? super Resource>>();
+        this.slots = new HashMap<String, Integer>(childNames.size() * 2);
+        int[] counts = new int[childNames.size()];
+        int total = 0;
         for (String childName : childNames) {
             resourceMatchers.add(new ResourceNameMatcher(childName));
+            Integer slot = slots.get(childName);
+            if (slot == null) {
+                slot = slots.size();
+                slots.put(childName, slot);
+            } else if (!exactMatch) {
+                // hasItems is satisfied by a single child for each distinct name
+                continue;
+            }
+            counts[slot]++;
+            total++;
         }
+        this.nameMatchers = resourceMatchers;
+        this.expectedCounts = counts;
+        this.expectedTotal = total;
 
         if (exactMatch) {
             if (validateOrder) {
@@ -72,13 +113,125 @@ public class ResourceChildrenMatcher extends TypeSafeMatcher<Resource> {
 
     @Override
     protected boolean matchesSafely(Resource item) {
-        return iterarableMatcher.matches(item.getChildren());
+        Mismatch mismatch = validateOrder ? matchesInOrder(item) : matchesInAnyOrder(item);
+        if (mismatch == null) {
+            return true;
+        }
+        mismatches.record(item, mismatch);
+        return false;
+    }
+
+    /**
+     * @return {@code null} if the children match, otherwise the mismatch
+     */
+    private Mismatch matchesInAnyOrder(Resource item) {
+        int[] remaining = expectedCounts.clone();
+        int missing = expectedTotal;
+        for (Resource child : item.getChildren()) {
+            Integer slot = slots.get(child.getName());
+            if (slot == null || remaining[slot] == 0) {
+                if (exactMatch) {
+                    return Mismatch.unexpected(-1, child, missing == 0);
+                }
+                continue;
+            }
+            remaining[slot]--;
+            missing--;
+            if (missing == 0 && !exactMatch) {
+                // all expected children found, the remaining ones are irrelevant
+                return null;
+            }
+        }
+        if (missing == 0) {
+            return null;
+        }
+        List<Matcher<? super Resource>> missingMatchers = new ArrayList<Matcher<? super Resource>>(missing);
+        for (int i = 0; i < childNames.size(); i++) {
+            int slot = slots.get(childNames.get(i));
+            if (remaining[slot] > 0) {
+                remaining[slot]--;
+                missingMatchers.add(nameMatchers.get(i));
+            }
+        }
+        return Mismatch.missing(missingMatchers);
+    }
+
+    /**
+     * @return {@code null} if the children match, otherwise the mismatch
+     */
+    private Mismatch matchesInOrder(Resource item) {
+        int index = 0;
+        for (Resource child : item.getChildren()) {
+            if (index >= childNames.size()) {
+                return Mismatch.unexpected(-1, child, false);
+            }
+            if (!childNames.get(index).equals(child.getName())) {
+                return Mismatch.unexpected(index, child, false);
+            }
+            index++;
+        }
+        return index == childNames.size() ? null : Mismatch.missing(nameMatchers.subList(index, index + 1));
     }
 
     @Override
     protected void describeMismatchSafely(Resource item, Description mismatchDescription) {
+        Mismatch mismatch = mismatches.take(item);
+        if (mismatch == null) {
+            // not evaluated by this thread before
+            mismatch = validateOrder ? matchesInOrder(item) : matchesInAnyOrder(item);
+            if (mismatch == null) {
+                return;
+            }
+        }
         // the default would be something like ".. but item 0 was <Resource.toString()>"
-        // use the iterable matcher here instead
-        iterarableMatcher.describeMismatch(item.getChildren(), mismatchDescription);
+        // describe it like the iterable matcher instead
+        if (mismatch.child == null) {
+            if (validateOrder) {
+                mismatchDescription.appendText("no item was ").appendDescriptionOf(mismatch.missing.get(0));
+            } else {
+                mismatchDescription
+                        .appendText("no item matches: ")
+                        .appendList("", ", ", "", mismatch.missing)
+                        .appendText(" in children of ")
+                        .appendValue(item.getPath());
+            }
+        } else if (mismatch.index >= 0) {
+            mismatchDescription.appendText("item " + mismatch.index + ": ");
+            nameMatchers.get(mismatch.index).describeMismatch(mismatch.child, mismatchDescription);
+        } else if (mismatch.allFound) {
+            mismatchDescription.appendText("no match for: ").appendValue(mismatch.child);
+        } else {
+            mismatchDescription.appendText("not matched: ").appendValue(mismatch.child);
+        }
+    }
+
+    /**
+     * The first child which did not match, or the children which are missing.
+     */
+    private static final class Mismatch {
+
+        /** the unexpected child, {@code null} if children are missing */
+        private final Resource child;
+        /** the index of the expected child with a different name, -1 if the child was not expected at all */
+        private final int index;
+        /** whether all expected children were found before the unexpected child */
+        private final boolean allFound;
+        /** the matchers of the missing children, only the first one for ordered matches */
+        private final List<Matcher<? super Resource>> missing;
+
+        private Mismatch(Resource child, int index, boolean allFound, List<Matcher<? super Resource>> missing) {
+            this.child = child;
+            this.index = index;
+            this.allFound = allFound;
+            this.missing = missing;
+        }
+
+        static Mismatch unexpected(int index, Resource child, boolean allFound) {
+            return new Mismatch(child, index, allFound, null);
+        }
+
+        static Mismatch missing(List<Matcher<? super Resource>> missing) {
+            return new Mismatch(null, -1, false, missing);
+        }
     }
 }
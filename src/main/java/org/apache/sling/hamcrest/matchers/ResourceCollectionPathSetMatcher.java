@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Ensures a collection of resources has the given paths regardless of their order: exactly these paths, at least
+ * these paths or none of these paths.
+ *
+ * <p>The expected paths are hashed once on construction, and every evaluation is a single pass over the collection,
+ * preceded by a size check where the mode allows one. Only describing a mismatch passes over the collection once
+ * more to collect all missing and unexpected paths.</p>
+ *
+ * @since 1.2.0
+ */
+public class ResourceCollectionPathSetMatcher extends TypeSafeMatcher<Collection<Resource>> {
+
+    /** The maximum number of paths listed per category in descriptions. */
+    private static final int MAX_LISTED_PATHS = 10;
+
+    private enum Mode {
+        EXACTLY("collection with exactly the paths in any order "),
+        CONTAINING("collection containing the paths "),
+        NOT_CONTAINING("collection containing none of the paths ");
+
+        private final String description;
+
+        Mode(String description) {
+            this.description = description;
+        }
+    }
+
+    private final Mode mode;
+    private final List<String> paths;
+    private final Set<String> pathSet;
+
+    private ResourceCollectionPathSetMatcher(Mode mode, List<String> paths) {
+        if (paths == null || paths.isEmpty()) {
+            throw new IllegalArgumentException("paths is null or empty");
+        }
+        this.mode = mode;
+        this.paths = new ArrayList<>(paths);
+        this.pathSet = new HashSet<>(paths);
+        if (pathSet.size() != paths.size() || pathSet.contains(null)) {
+            throw new IllegalArgumentException("paths contains null or duplicate paths");
+        }
+    }
+
+    /**
+     * @param paths the expected paths
+     * @return a matcher accepting collections with exactly the given paths in any order
+     */
+    public static ResourceCollectionPathSetMatcher inAnyOrder(List<String> paths) {
+        return new ResourceCollectionPathSetMatcher(Mode.EXACTLY, paths);
+    }
+
+    /**
+     * @param paths the expected paths
+     * @return a matcher accepting collections with at least the given paths, in any order
+     */
+    public static ResourceCollectionPathSetMatcher containing(List<String> paths) {
+        return new ResourceCollectionPathSetMatcher(Mode.CONTAINING, paths);
+    }
+
+    /**
+     * @param paths the unexpected paths
+     * @return a matcher accepting collections with none of the given paths
+     */
+    public static ResourceCollectionPathSetMatcher notContaining(List<String> paths) {
+        return new ResourceCollectionPathSetMatcher(Mode.NOT_CONTAINING, paths);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText(mode.description);
+        appendPaths(paths, description);
+    }
+
+    @Override
+    protected boolean matchesSafely(Collection<Resource> items) {
+        switch (mode) {
+            case EXACTLY:
+                if (items.size() != paths.size()) {
+                    return false;
+                }
+                // with equal sizes, no unexpected and no duplicate path means that no path is missing
+                Set<String> seen = new HashSet<>();
+                for (Resource item : items) {
+                    String path = item.getPath();
+                    if (!pathSet.contains(path) || !seen.add(path)) {
+                        return false;
+                    }
+                }
+                return true;
+            case CONTAINING:
+                if (items.size() < paths.size()) {
+                    return false;
+                }
+                Set<String> found = new HashSet<>();
+                for (Resource item : items) {
+                    String path = item.getPath();
+                    if (pathSet.contains(path) && found.add(path) && found.size() == paths.size()) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                for (Resource item : items) {
+                    if (pathSet.contains(item.getPath())) {
+                        return false;
+                    }
+                }
+                return true;
+        }
+    }
+
+    @Override
+    protected void describeMismatchSafely(Collection<Resource> items, Description mismatchDescription) {
+        Set<String> found = new HashSet<>();
+        List<String> unexpected = new ArrayList<>();
+        for (Resource item : items) {
+            String path = item.getPath();
+            if (pathSet.contains(path)) {
+                if (!found.add(path) && mode == Mode.EXACTLY) {
+                    // duplicates are only unexpected if the collection should have exactly the given paths
+                    unexpected.add(path);
+                }
+            } else if (mode == Mode.EXACTLY) {
+                unexpected.add(path);
+            }
+        }
+
+        mismatchDescription.appendText("was collection of " + items.size() + " resources");
+        if (mode == Mode.NOT_CONTAINING) {
+            List<String> contained = new ArrayList<>();
+            for (String path : paths) {
+                if (found.contains(path)) {
+                    contained.add(path);
+                }
+            }
+            mismatchDescription.appendText(" containing ");
+            appendPaths(contained, mismatchDescription);
+            return;
+        }
+        List<String> missing = new ArrayList<>();
+        for (String path : paths) {
+            if (!found.contains(path)) {
+                missing.add(path);
+            }
+        }
+        if (!missing.isEmpty()) {
+            mismatchDescription.appendText(", missing ");
+            appendPaths(missing, mismatchDescription);
+        }
+        if (!unexpected.isEmpty()) {
+            mismatchDescription.appendText(", unexpected ");
+            appendPaths(unexpected, mismatchDescription);
+        }
+    }
+
+    private static void appendPaths(List<String> paths, Description description) {
+        if (paths.size() <= MAX_LISTED_PATHS) {
+            description.appendValueList("[", ", ", "]", paths);
+        } else {
+            description.appendValueList(
+                    "[", ", ", ", ... (" + paths.size() + " paths)]", paths.subList(0, MAX_LISTED_PATHS));
+        }
+    }
+}
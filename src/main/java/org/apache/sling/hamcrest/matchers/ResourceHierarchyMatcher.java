@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Matcher which matches whenever the given resource has a certain position in the hierarchy: a given parent path,
+ * a given ancestor path or a given depth.
+ *
+ * <p>Only the resource path is evaluated, by comparing regions of it in place and scanning for {@code /}. Neither
+ * the parent resource is retrieved nor is any string allocated while matching, so the matcher is cheap enough to be
+ * applied to every resource of large results.</p>
+ *
+ * @since 1.2.0
+ */
+public class ResourceHierarchyMatcher extends TypeSafeMatcher<Resource> {
+
+    private enum Kind {
+        PARENT,
+        ANCESTOR,
+        DEPTH
+    }
+
+    private final Kind kind;
+    private final String path;
+    private final int depth;
+
+    private ResourceHierarchyMatcher(Kind kind, String path, int depth) {
+        this.kind = kind;
+        this.path = path;
+        this.depth = depth;
+    }
+
+    /**
+     * @param parentPath the absolute path of the parent
+     * @return a matcher accepting the children of the given path
+     */
+    public static ResourceHierarchyMatcher parentPath(String parentPath) {
+        return new ResourceHierarchyMatcher(Kind.PARENT, normalize(parentPath, "parentPath"), -1);
+    }
+
+    /**
+     * @param ancestorPath the absolute path of the ancestor
+     * @return a matcher accepting all descendants of the given path, but not the path itself
+     */
+    public static ResourceHierarchyMatcher descendantOf(String ancestorPath) {
+        return new ResourceHierarchyMatcher(Kind.ANCESTOR, normalize(ancestorPath, "ancestorPath"), -1);
+    }
+
+    /**
+     * @param depth the number of path segments, 0 for the root resource
+     * @return a matcher accepting resources with the given depth
+     */
+    public static ResourceHierarchyMatcher depth(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("depth is negative");
+        }
+        return new ResourceHierarchyMatcher(Kind.DEPTH, null, depth);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        switch (kind) {
+            case PARENT:
+                description.appendText("Resource with parent path ").appendValue(path);
+                break;
+            case ANCESTOR:
+                description.appendText("Resource below ").appendValue(path);
+                break;
+            default:
+                description.appendText("Resource at depth " + depth);
+        }
+    }
+
+    @Override
+    protected boolean matchesSafely(Resource resource) {
+        String resourcePath = resource.getPath();
+        switch (kind) {
+            case PARENT:
+                int parentLength = parentLength(resourcePath);
+                return parentLength == path.length() && resourcePath.regionMatches(0, path, 0, parentLength);
+            case ANCESTOR:
+                return isDescendant(resourcePath, path);
+            default:
+                return depth(resourcePath) == depth;
+        }
+    }
+
+    @Override
+    protected void describeMismatchSafely(Resource resource, Description mismatchDescription) {
+        mismatchDescription.appendText("was Resource ");
+        if (kind == Kind.DEPTH) {
+            mismatchDescription.appendText("at depth " + depth(resource.getPath()) + " ");
+        }
+        mismatchDescription
+                .appendText("with path ")
+                .appendValue(resource.getPath())
+                .appendText(" (resource: ")
+                .appendValue(resource)
+                .appendText(")");
+    }
+
+    /**
+     * @param path an absolute path
+     * @return the length of the parent path, -1 for the root path or relative paths
+     */
+    static int parentLength(String path) {
+        int lastSlash = path.lastIndexOf('/');
+        if (lastSlash < 0 || path.length() == 1) {
+            return -1;
+        }
+        return lastSlash == 0 ? 1 : lastSlash;
+    }
+
+    /**
+     * @param path a path
+     * @param ancestor a normalized absolute path
+     * @return {@code true} if the path is below the ancestor
+     */
+    static boolean isDescendant(String path, String ancestor) {
+        int length = ancestor.length();
+        if (path.length() <= length || !path.regionMatches(0, ancestor, 0, length)) {
+            return false;
+        }
+        // the root path already ends with the separator
+        return length == 1 || path.charAt(length) == '/';
+    }
+
+    /**
+     * @param path an absolute path
+     * @return the number of path segments
+     */
+    static int depth(String path) {
+        int depth = 0;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '/' && i + 1 < path.length()) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Removes a trailing slash from the given path, except for the root path.
+     */
+    private static String normalize(String path, String name) {
+        if (path == null || !path.startsWith("/")) {
+            throw new IllegalArgumentException(name + " is null or not absolute");
+        }
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+}
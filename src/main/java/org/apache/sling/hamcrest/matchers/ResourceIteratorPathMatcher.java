@@ -29,46 +29,112 @@ import org.hamcrest.TypeSafeMatcher;
 
 /**
  * Ensures an iterator of resources has exactly the given list of paths in the given order.
+ *
+ * <p>The iterator is consumed lazily and evaluation stops at the first resource which diverges from the expected
+ * paths, so the memory consumption does not depend on the number of resources returned by the iterator. The
+ * mismatch is recorded while matching, because the iterator cannot be consumed a second time for describing it.</p>
  */
 public class ResourceIteratorPathMatcher extends TypeSafeMatcher<Iterator<Resource>> {
 
-    // this should be "Iterable<? extends Resource>" instead of "?" but cannot until
-    // https://github.com/hamcrest/JavaHamcrest/issues/107 is solved
-    private final Matcher<?> iterarableMatcher;
+    /** The maximum number of already matched paths which are listed in the mismatch description. */
+    private static final int SEEN_PATHS_WINDOW = 5;
+
+    private final List<String> paths;
+    private final List<Matcher<? super Resource>> resourceMatchers;
+    private final EvaluationRecord<Mismatch> mismatches = new EvaluationRecord<>();
 
     public ResourceIteratorPathMatcher(List<String> paths) {
         if (paths == null || paths.isEmpty()) {
             throw new IllegalArgumentException("names is null or empty");
         }
 
-        List<Matcher<? super Resource>> resourceMatchers = new ArrayList<Matcher<? super Resource>>();
+        this.paths = new ArrayList<String>(paths);
+        this.resourceMatchers = new ArrayList<Matcher<? super Resource>>();
         for (String path : paths) {
             resourceMatchers.add(new ResourcePathMatcher(path));
         }
-
-        this.iterarableMatcher = org.hamcrest.collection.IsIterableContainingInOrder.contains(resourceMatchers);
     }
 
     @Override
     public void describeTo(Description description) {
-        iterarableMatcher.describeTo(description);
+        description.appendText("iterable containing ");
+        describeItems(description);
+    }
+
+    void describeItems(Description description) {
+        description.appendList("[", ", ", "]", resourceMatchers);
     }
 
     @Override
     protected boolean matchesSafely(Iterator<Resource> items) {
-        return iterarableMatcher.matches(toList(items));
+        Mismatch mismatch = evaluate(items);
+        if (mismatch == null) {
+            return true;
+        }
+        mismatches.record(items, mismatch);
+        return false;
     }
 
     @Override
     protected void describeMismatchSafely(Iterator<Resource> items, Description mismatchDescription) {
-        iterarableMatcher.describeMismatch(toList(items), mismatchDescription);
+        Mismatch mismatch = mismatches.take(items);
+        if (mismatch == null) {
+            // not evaluated by this thread before, only the remaining items are left for evaluation
+            mismatch = evaluate(items);
+            if (mismatch == null) {
+                mismatchDescription.appendText("all remaining items matched");
+                return;
+            }
+        }
+        describeMismatch(mismatch, mismatchDescription);
     }
 
-    private List<Resource> toList(Iterator<Resource> items) {
-        List<Resource> list = new ArrayList<Resource>();
+    void describeMismatch(Mismatch mismatch, Description mismatchDescription) {
+        if (mismatch.index >= paths.size()) {
+            mismatchDescription.appendText("not matched: ").appendValue(mismatch.resource);
+        } else if (mismatch.resource == null) {
+            mismatchDescription.appendText("no item was ").appendDescriptionOf(resourceMatchers.get(mismatch.index));
+        } else {
+            mismatchDescription.appendText("item " + mismatch.index + ": ");
+            resourceMatchers.get(mismatch.index).describeMismatch(mismatch.resource, mismatchDescription);
+        }
+
+        // all items before the mismatch were equal to the expected paths, so they need not be buffered
+        if (mismatch.index > 0) {
+            int start = Math.max(0, mismatch.index - SEEN_PATHS_WINDOW);
+            mismatchDescription
+                    .appendText(", preceded by ")
+                    .appendValueList(start > 0 ? "[..., " : "[", ", ", "]", paths.subList(start, mismatch.index));
+        }
+    }
+
+    /**
+     * Consumes the iterator until the first item diverging from the expected paths.
+     * @param items the iterator
+     * @return the first mismatch or {@code null} in case all items matched
+     */
+    Mismatch evaluate(Iterator<Resource> items) {
+        int index = 0;
         while (items.hasNext()) {
-            list.add(items.next());
+            Resource resource = items.next();
+            if (index >= paths.size() || !paths.get(index).equals(resource.getPath())) {
+                return new Mismatch(index, resource);
+            }
+            index++;
+        }
+        return index < paths.size() ? new Mismatch(index, null) : null;
+    }
+
+    static final class Mismatch {
+
+        /** index of the first diverging item */
+        private final int index;
+        /** the diverging resource or {@code null} if the iterator ended too early */
+        private final Resource resource;
+
+        Mismatch(int index, Resource resource) {
+            this.index = index;
+            this.resource = resource;
         }
-        return list;
     }
 }
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Ensures the path of every resource in a collection or iterator matches a {@link PathPattern}, or that the path
+ * of none of them matches it.
+ *
+ * <p>Evaluation stops at the first offending resource, which is recorded while matching, because an iterator cannot
+ * be consumed a second time for describing the mismatch.</p>
+ *
+ * @param <T> {@link Collection} or {@link Iterator} of resources
+ * @since 1.2.0
+ */
+public class ResourcePathsPatternMatcher<T> extends TypeSafeMatcher<T> {
+
+    private final String kind;
+    private final PathPattern pattern;
+    /** whether the paths must match the pattern, otherwise none of them may */
+    private final boolean matching;
+    private final EvaluationRecord<Mismatch> mismatches = new EvaluationRecord<>();
+
+    private ResourcePathsPatternMatcher(Class<?> type, String kind, PathPattern pattern, boolean matching) {
+        super(type);
+        if (pattern == null) {
+            throw new IllegalArgumentException("pattern is null");
+        }
+        this.kind = kind;
+        this.pattern = pattern;
+        this.matching = matching;
+    }
+
+    /**
+     * @param pattern the pattern which the path of every resource must match
+     * @return a matcher instance for resource collections
+     */
+    public static ResourcePathsPatternMatcher<Collection<Resource>> collection(PathPattern pattern) {
+        return new ResourcePathsPatternMatcher<>(Collection.class, "collection", pattern, true);
+    }
+
+    /**
+     * @param pattern the pattern which the path of no resource may match
+     * @return a matcher instance for resource collections
+     */
+    public static ResourcePathsPatternMatcher<Collection<Resource>> collectionNoneMatching(PathPattern pattern) {
+        return new ResourcePathsPatternMatcher<>(Collection.class, "collection", pattern, false);
+    }
+
+    /**
+     * @param pattern the pattern which the path of every resource must match
+     * @return a matcher instance for resource iterators
+     */
+    public static ResourcePathsPatternMatcher<Iterator<Resource>> iterator(PathPattern pattern) {
+        return new ResourcePathsPatternMatcher<>(Iterator.class, "iterator", pattern, true);
+    }
+
+    /**
+     * @param pattern the pattern which the path of no resource may match
+     * @return a matcher instance for resource iterators
+     */
+    public static ResourcePathsPatternMatcher<Iterator<Resource>> iteratorNoneMatching(PathPattern pattern) {
+        return new ResourcePathsPatternMatcher<>(Iterator.class, "iterator", pattern, false);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description
+                .appendText(kind + " of resources " + (matching ? "each" : "none") + " with ")
+                .appendDescriptionOf(pattern);
+    }
+
+    @Override
+    protected boolean matchesSafely(T items) {
+        Mismatch mismatch = evaluate(items);
+        if (mismatch == null) {
+            return true;
+        }
+        mismatches.record(items, mismatch);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(T items, Description mismatchDescription) {
+        Mismatch mismatch = mismatches.take(items);
+        if (mismatch == null) {
+            // not evaluated by this thread before, for iterators only the remaining items are left for evaluation
+            mismatch = evaluate(items);
+            if (mismatch == null) {
+                mismatchDescription.appendText("all remaining items matched");
+                return;
+            }
+        }
+        mismatchDescription
+                .appendText("item " + mismatch.index + " has path ")
+                .appendValue(mismatch.resource.getPath())
+                .appendText(" (resource: ")
+                .appendValue(mismatch.resource)
+                .appendText(")");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mismatch evaluate(T items) {
+        Iterator<Resource> iterator =
+                items instanceof Iterator ? (Iterator<Resource>) items : ((Collection<Resource>) items).iterator();
+        int index = 0;
+        while (iterator.hasNext()) {
+            Resource resource = iterator.next();
+            if (pattern.matches(resource.getPath()) != matching) {
+                return new Mismatch(index, resource);
+            }
+            index++;
+        }
+        return null;
+    }
+
+    private static final class Mismatch {
+
+        private final int index;
+        private final Resource resource;
+
+        Mismatch(int index, Resource resource) {
+            this.index = index;
+            this.resource = resource;
+        }
+    }
+}
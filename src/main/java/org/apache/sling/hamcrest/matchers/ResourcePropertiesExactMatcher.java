@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Matcher which matches whenever the given resource has exactly the properties given on construction with equal
+ * values, apart from ignored properties. Array values are compared item by item.
+ *
+ * <p>The actual properties are compared in a single pass over the value map, looking up each name in the hashed
+ * expected properties, without copying or sorting the value map. Only differing properties are listed in the
+ * mismatch description, which reuses the value map read while matching.</p>
+ *
+ * @since 1.2.0
+ */
+public class ResourcePropertiesExactMatcher extends TypeSafeMatcher<Resource> {
+
+    private final CompactPropertyMap expectedProps;
+    private final IgnoredProperties ignored;
+    /** number of expected properties which are not ignored */
+    private final int comparedCount;
+    private final EvaluationRecord<Map<String, Object>> mismatches = new EvaluationRecord<>();
+
+    public ResourcePropertiesExactMatcher(Map<String, Object> properties, IgnoredProperties ignored) {
+        if (properties == null) {
+            throw new IllegalArgumentException("properties is null");
+        }
+        if (ignored == null) {
+            throw new IllegalArgumentException("ignored is null");
+        }
+        this.expectedProps = CompactPropertyMap.copyOf(properties);
+        this.ignored = ignored;
+        int count = 0;
+        for (int i = 0; i < expectedProps.size(); i++) {
+            if (!ignored.contains(expectedProps.nameAt(i))) {
+                count++;
+            }
+        }
+        this.comparedCount = count;
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description
+                .appendText("Resource with exactly the properties ")
+                .appendValueList(
+                        "[", ",", "]", PropertyValues.convertArraysToStrings(expectedProps).entrySet());
+        if (!ignored.isEmpty()) {
+            description.appendText(" ignoring " + ignored);
+        }
+    }
+
+    @Override
+    protected boolean matchesSafely(Resource item) {
+        ValueMap actualProps = item.getValueMap();
+        if (compare(actualProps, null)) {
+            return true;
+        }
+        mismatches.record(item, actualProps);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(Resource item, Description mismatchDescription) {
+        // reuse the value map read while matching, reading it again may be expensive
+        Map<String, Object> actualProps = mismatches.take(item);
+        if (actualProps == null) {
+            actualProps = item.getValueMap();
+        }
+        Differences differences = new Differences();
+        compare(actualProps, differences);
+
+        int count = differences.count();
+        mismatchDescription
+                .appendText("was Resource with " + count)
+                .appendText(count == 1 ? " differing property (resource: " : " differing properties (resource: ")
+                .appendValue(item)
+                .appendText(")");
+        for (String name : differences.missing) {
+            mismatchDescription
+                    .appendText(System.lineSeparator())
+                    .appendText("     Missing property ")
+                    .appendValue(name)
+                    .appendText(": expected ");
+            PropertyValues.appendValueAndType(mismatchDescription, expectedProps.get(name));
+        }
+        for (String name : differences.unexpected) {
+            mismatchDescription
+                    .appendText(System.lineSeparator())
+                    .appendText("     Unexpected property ")
+                    .appendValue(name)
+                    .appendText(": ");
+            PropertyValues.appendValueAndType(mismatchDescription, actualProps.get(name));
+        }
+        for (String name : differences.different) {
+            mismatchDescription
+                    .appendText(System.lineSeparator())
+                    .appendText("     Mismatch in property ")
+                    .appendValue(name)
+                    .appendText(": expected ");
+            PropertyValues.appendValueAndType(mismatchDescription, expectedProps.get(name));
+            mismatchDescription.appendText(" but was ");
+            PropertyValues.appendValueAndType(mismatchDescription, actualProps.get(name));
+        }
+    }
+
+    /**
+     * Compares the actual properties with the expected ones in a single pass.
+     * @param actualProps the actual properties
+     * @param differences collects all differences, or {@code null} to stop at the first difference
+     * @return {@code true} if there are no differences
+     */
+    private boolean compare(Map<String, Object> actualProps, Differences differences) {
+        int matchedCount = 0;
+        boolean equal = true;
+        for (Map.Entry<String, Object> entry : actualProps.entrySet()) {
+            String name = entry.getKey();
+            if (ignored.contains(name)) {
+                continue;
+            }
+            int index = expectedProps.indexOf(name);
+            if (index >= 0) {
+                matchedCount++;
+                if (PropertyValues.valueEquals(expectedProps.valueAt(index), entry.getValue())) {
+                    continue;
+                }
+                if (differences != null) {
+                    differences.different.add(name);
+                }
+            } else if (differences != null) {
+                differences.unexpected.add(name);
+            }
+            if (differences == null) {
+                return false;
+            }
+            equal = false;
+        }
+        if (matchedCount == comparedCount) {
+            return equal;
+        }
+        if (differences != null) {
+            for (int i = 0; i < expectedProps.size(); i++) {
+                String name = expectedProps.nameAt(i);
+                if (!ignored.contains(name) && !actualProps.containsKey(name)) {
+                    differences.missing.add(name);
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class Differences {
+
+        private final List<String> missing = new ArrayList<>();
+        private final List<String> unexpected = new ArrayList<>();
+        private final List<String> different = new ArrayList<>();
+
+        int count() {
+            return missing.size() + unexpected.size() + different.size();
+        }
+    }
+}
@@ -18,27 +18,30 @@
  */
 package org.apache.sling.hamcrest.matchers;
 
-import java.lang.reflect.Array;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ValueMap;
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeMatcher;
 
+/**
+ * Matcher which matches whenever the given resource has at least the properties given in the constructor with equal
+ * values. Array values are compared item by item.
+ *
+ * <p>The expected properties are copied, and the first mismatching property is only kept per thread for describing
+ * the mismatch, so a single instance can be shared between concurrently running tests.</p>
+ */
 public class ResourcePropertiesMatcher extends TypeSafeMatcher<Resource> {
 
-    private final Map<String, Object> expectedProps;
-    private String firstMismatchPropertyName;
+    private final CompactPropertyMap expectedProps;
+    private final EvaluationRecord<Mismatch> mismatches = new EvaluationRecord<Mismatch>();
 
     public ResourcePropertiesMatcher(Map<String, Object> properties) {
         if (properties == null || properties.isEmpty()) {
             throw new IllegalArgumentException("properties is null or empty");
         }
-        firstMismatchPropertyName = null;
-        this.expectedProps = properties;
+        this.expectedProps = CompactPropertyMap.copyOf(properties);
     }
 
     @Override
@@ -46,64 +49,32 @@ public class ResourcePropertiesMatcher extends TypeSafeMatcher<Resource> {
         description
                 .appendText("Resource with properties ")
                 .appendValueList(
-                        "[", ",", "]", convertArraysToStrings(expectedProps).entrySet());
+                        "[", ",", "]", PropertyValues.convertArraysToStrings(expectedProps).entrySet());
     }
 
     @Override
     protected boolean matchesSafely(Resource item) {
         ValueMap givenProps = item.getValueMap();
-        for (Map.Entry<String, Object> prop : expectedProps.entrySet()) {
-            Object givenValue = givenProps.get(prop.getKey());
-            Object expectedValue = prop.getValue();
-            if (givenValue != null
-                    && expectedValue != null
-                    && givenValue.getClass().isArray()
-                    && expectedValue.getClass().isArray()) {
-                if (!arrayEquals(expectedValue, givenValue)) {
-                    firstMismatchPropertyName = prop.getKey();
-                    return false;
-                }
-            } else {
-                if (!objectEquals(expectedValue, givenValue)) {
-                    firstMismatchPropertyName = prop.getKey();
-                    return false;
-                }
-            }
+        String firstMismatchPropertyName = PropertyValues.firstMismatchName(expectedProps, givenProps);
+        if (firstMismatchPropertyName == null) {
+            return true;
         }
-        return true;
-    }
-
-    private boolean objectEquals(Object value1, Object value2) {
-        if (value1 == null) {
-            return (value2 == null);
-        } else if (value2 == null) {
-            return (value1 == null);
-        } else {
-            return value1.equals(value2);
-        }
-    }
-
-    private boolean arrayEquals(Object array1, Object array2) {
-        int length1 = Array.getLength(array1);
-        int length2 = Array.getLength(array2);
-        if (length1 != length2) {
-            return false;
-        }
-        for (int i = 0; i < length1; i++) {
-            if (!objectEquals(Array.get(array1, i), Array.get(array2, i))) {
-                return false;
-            }
-        }
-        return true;
+        mismatches.record(item, new Mismatch(givenProps, firstMismatchPropertyName));
+        return false;
     }
 
     @Override
     protected void describeMismatchSafely(Resource item, Description mismatchDescription) {
-        Map<String, Object> actualProperties = item.getValueMap();
+        // reuse the value map read while matching, reading it again may be expensive
+        Mismatch mismatch = mismatches.take(item);
+        Map<String, Object> actualProperties = mismatch != null ? mismatch.actualProperties : item.getValueMap();
+        String firstMismatchPropertyName = mismatch != null
+                ? mismatch.firstMismatchPropertyName
+                : PropertyValues.firstMismatchName(expectedProps, actualProperties);
         mismatchDescription
                 .appendText("was Resource with properties ")
                 .appendValueList(
-                        "[", ",", "]", convertArraysToStrings(actualProperties).entrySet())
+                        "[", ",", "]", PropertyValues.convertArraysToStrings(actualProperties).entrySet())
                 .appendText(" (resource: ")
                 .appendValue(item)
                 .appendText(")");
@@ -115,52 +86,20 @@ public class ResourcePropertiesMatcher extends TypeSafeMatcher<Resource> {
                     .appendText("     First mismatch in property ")
                     .appendValue(firstMismatchPropertyName)
                     .appendText(": expected ");
-            appendValueAndType(mismatchDescription, expectedValue);
+            PropertyValues.appendValueAndType(mismatchDescription, expectedValue);
             mismatchDescription.appendText(" but was ");
-            appendValueAndType(mismatchDescription, actualValue);
+            PropertyValues.appendValueAndType(mismatchDescription, actualValue);
         }
     }
 
-    private static void appendValueAndType(Description mismatchDescription, Object value) {
-        if (value == null) {
-            mismatchDescription.appendText("null");
-        } else {
-            mismatchDescription
-                    .appendText("value ")
-                    .appendValue(value)
-                    .appendText(" of type ")
-                    .appendValue(value.getClass().getName());
-        }
-    }
+    private static final class Mismatch {
+
+        private final Map<String, Object> actualProperties;
+        private final String firstMismatchPropertyName;
 
-    /**
-     * Convert arrays to string representation to get better message if comparison fails.
-     * @param props Properties
-     * @return Properties with array values converted to strings
-     */
-    private Map<String, Object> convertArraysToStrings(Map<String, Object> props) {
-        SortedMap<String, Object> transformedProps = new TreeMap<String, Object>();
-        for (Map.Entry<String, Object> entry : props.entrySet()) {
-            Object value = entry.getValue();
-            if (value != null && value.getClass().isArray()) {
-                StringBuilder sb = new StringBuilder();
-                sb.append("[");
-                for (int i = 0; i < Array.getLength(value); i++) {
-                    if (i > 0) {
-                        sb.append(",");
-                    }
-                    Object item = Array.get(value, i);
-                    if (item == null) {
-                        sb.append("null");
-                    } else {
-                        sb.append(item.toString());
-                    }
-                }
-                sb.append("]");
-                value = sb.toString();
-            }
-            transformedProps.put(entry.getKey(), value);
+        Mismatch(Map<String, Object> actualProperties, String firstMismatchPropertyName) {
+            this.actualProperties = actualProperties;
+            this.firstMismatchPropertyName = firstMismatchPropertyName;
         }
-        return transformedProps;
     }
 }
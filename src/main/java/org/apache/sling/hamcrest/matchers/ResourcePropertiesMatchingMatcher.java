@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Matcher which matches whenever the properties of the given resource match the property matchers given in the
+ * factory method. Missing properties are matched as {@code null}.
+ *
+ * <p>The value map is fetched once per evaluation, and each property is read once, either raw or converted with
+ * {@link ValueMap#get(String, Class)} to the type of its {@link ExpectedProperty}, so typed and raw checks can be
+ * combined. All property matchers are evaluated, and the values of all mismatching properties are kept per thread
+ * for describing the mismatch, without reading them again.</p>
+ *
+ * @since 1.2.0
+ */
+public class ResourcePropertiesMatchingMatcher extends TypeSafeMatcher<Resource> {
+
+    private final String[] names;
+    /** the type to convert each property value to, {@code null} for raw values */
+    private final Class<?>[] types;
+    private final Matcher<?>[] matchers;
+    private final EvaluationRecord<List<Mismatch>> mismatches = new EvaluationRecord<>();
+
+    private ResourcePropertiesMatchingMatcher(List<ExpectedProperty> properties) {
+        this.names = new String[properties.size()];
+        this.types = new Class<?>[properties.size()];
+        this.matchers = new Matcher<?>[properties.size()];
+        for (int i = 0; i < properties.size(); i++) {
+            ExpectedProperty property = properties.get(i);
+            if (property == null) {
+                throw new IllegalArgumentException("properties contains null");
+            }
+            names[i] = property.getName();
+            types[i] = property.getType();
+            matchers[i] = property.getMatcher();
+        }
+    }
+
+    /**
+     * @param properties the expected properties, each either raw or converted to its own type
+     * @return a matcher instance
+     */
+    public static ResourcePropertiesMatchingMatcher of(ExpectedProperty... properties) {
+        if (properties == null || properties.length == 0) {
+            throw new IllegalArgumentException("properties is null or empty");
+        }
+        return new ResourcePropertiesMatchingMatcher(Arrays.asList(properties));
+    }
+
+    /**
+     * @param matchers the matchers for the raw property values, by property name
+     * @return a matcher instance
+     */
+    public static ResourcePropertiesMatchingMatcher raw(Map<String, ? extends Matcher<?>> matchers) {
+        return fromMap(null, matchers);
+    }
+
+    /**
+     * @param type the type to convert the property values to
+     * @param matchers the matchers for the converted property values, by property name
+     * @param <T> the type of the converted property values
+     * @return a matcher instance
+     */
+    public static <T> ResourcePropertiesMatchingMatcher typed(
+            Class<T> type, Map<String, ? extends Matcher<? super T>> matchers) {
+        if (type == null) {
+            throw new IllegalArgumentException("type is null");
+        }
+        return fromMap(type, matchers);
+    }
+
+    private static ResourcePropertiesMatchingMatcher fromMap(
+            Class<?> type, Map<String, ? extends Matcher<?>> matchers) {
+        if (matchers == null || matchers.isEmpty()) {
+            throw new IllegalArgumentException("matchers is null or empty");
+        }
+        List<ExpectedProperty> properties = new ArrayList<>(matchers.size());
+        for (Map.Entry<String, ? extends Matcher<?>> entry : matchers.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                throw new IllegalArgumentException("matchers contains a null name or matcher");
+            }
+            properties.add(new ExpectedProperty(entry.getKey(), type, entry.getValue()));
+        }
+        return new ResourcePropertiesMatchingMatcher(properties);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("Resource with properties [");
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                description.appendText(", ");
+            }
+            description.appendValue(names[i]).appendText(" ");
+            if (types[i] != null) {
+                description.appendText("as " + types[i].getSimpleName() + " ");
+            }
+            description.appendDescriptionOf(matchers[i]);
+        }
+        description.appendText("]");
+    }
+
+    @Override
+    protected boolean matchesSafely(Resource item) {
+        List<Mismatch> itemMismatches = evaluate(item);
+        if (itemMismatches == null) {
+            return true;
+        }
+        mismatches.record(item, itemMismatches);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(Resource item, Description mismatchDescription) {
+        List<Mismatch> itemMismatches = mismatches.take(item);
+        if (itemMismatches == null) {
+            itemMismatches = evaluate(item);
+        }
+        mismatchDescription.appendText("was Resource ").appendValue(item);
+        if (itemMismatches == null) {
+            return;
+        }
+        for (Mismatch mismatch : itemMismatches) {
+            mismatchDescription
+                    .appendText(System.lineSeparator())
+                    .appendText("     Mismatch in property ")
+                    .appendValue(names[mismatch.index])
+                    .appendText(": ");
+            matchers[mismatch.index].describeMismatch(mismatch.value, mismatchDescription);
+        }
+    }
+
+    /**
+     * Evaluates all property matchers against a single value map.
+     * @param item the resource
+     * @return the mismatches or {@code null} if all properties matched
+     */
+    private List<Mismatch> evaluate(Resource item) {
+        ValueMap properties = item.getValueMap();
+        List<Mismatch> result = null;
+        for (int i = 0; i < names.length; i++) {
+            Object value = types[i] != null ? properties.get(names[i], types[i]) : properties.get(names[i]);
+            if (!matchers[i].matches(value)) {
+                if (result == null) {
+                    result = new ArrayList<>();
+                }
+                result.add(new Mismatch(i, value));
+            }
+        }
+        return result;
+    }
+
+    private static final class Mismatch {
+
+        private final int index;
+        private final Object value;
+
+        Mismatch(int index, Object value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import org.apache.sling.api.resource.Resource;
+
+/**
+ * Serializes a resource subtree into the deterministic, line-oriented format described at
+ * {@link ResourceSnapshotMatcher#serialize(Resource)}. Backslashes and line breaks in values are escaped, as well
+ * as commas and closing brackets in array items. Binary values are not serialized.
+ */
+final class ResourceSnapshot {
+
+    private ResourceSnapshot() {
+        // static methods only
+    }
+
+    /**
+     * @param root the root of the subtree
+     * @return the lines, computed lazily so that a comparison can stop at the first difference
+     */
+    static Iterator<String> lines(Resource root) {
+        return new LineIterator(root);
+    }
+
+    /**
+     * @param root the root of the subtree
+     * @return all lines
+     */
+    static List<String> allLines(Resource root) {
+        List<String> lines = new ArrayList<>();
+        for (Iterator<String> iterator = lines(root); iterator.hasNext(); ) {
+            lines.add(iterator.next());
+        }
+        return lines;
+    }
+
+    private static String propertyLine(String path, String name, Object value) {
+        StringBuilder line = new StringBuilder(path).append(" @");
+        escape(line, name, false);
+        line.append('=');
+        if (value == null) {
+            return line.append("null").toString();
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            line.append(typeName(type.getComponentType())).append("[]:[");
+            int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendValue(line, Array.get(value, i), true);
+            }
+            return line.append(']').toString();
+        }
+        line.append(typeName(type)).append(':');
+        appendValue(line, value, false);
+        return line.toString();
+    }
+
+    private static String typeName(Class<?> type) {
+        if (type.isPrimitive()) {
+            return type.getName();
+        }
+        if (Calendar.class.isAssignableFrom(type)) {
+            return "Calendar";
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return "Date";
+        }
+        if (InputStream.class.isAssignableFrom(type)) {
+            return "Binary";
+        }
+        String packageName = type.getPackage() != null ? type.getPackage().getName() : "";
+        if (packageName.equals("java.lang") || packageName.equals("java.math")) {
+            return type.getSimpleName();
+        }
+        return type.getName();
+    }
+
+    private static void appendValue(StringBuilder line, Object value, boolean arrayItem) {
+        if (value == null) {
+            line.append("null");
+        } else if (value instanceof Calendar) {
+            Calendar calendar = (Calendar) value;
+            line.append(OffsetDateTime.ofInstant(calendar.toInstant(), calendar.getTimeZone().toZoneId()));
+        } else if (value instanceof Date) {
+            line.append(((Date) value).toInstant());
+        } else if (value instanceof InputStream) {
+            line.append("<binary>");
+        } else {
+            escape(line, value.toString(), arrayItem);
+        }
+    }
+
+    private static void escape(StringBuilder line, String value, boolean arrayItem) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case ',':
+                case ']':
+                    if (arrayItem) {
+                        line.append('\\');
+                    }
+                    line.append(c);
+                    break;
+                default:
+                    line.append(c);
+            }
+        }
+    }
+
+    /**
+     * Walks the subtree with an explicit stack, emitting the lines of one resource at a time.
+     */
+    private static final class LineIterator implements Iterator<String> {
+
+        private final Deque<Resource> resources = new ArrayDeque<>();
+        private final Deque<String> paths = new ArrayDeque<>();
+        private final Deque<String> pending = new ArrayDeque<>();
+
+        LineIterator(Resource root) {
+            resources.push(root);
+            paths.push("/");
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending.isEmpty() && !resources.isEmpty()) {
+                emit(resources.pop(), paths.pop());
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pending.poll();
+        }
+
+        private void emit(Resource resource, String path) {
+            pending.add(path);
+            Map<String, Object> properties = new TreeMap<>(resource.getValueMap());
+            for (Map.Entry<String, Object> property : properties.entrySet()) {
+                pending.add(propertyLine(path, property.getKey(), property.getValue()));
+            }
+            List<Resource> children = new ArrayList<>();
+            for (Iterator<Resource> iterator = resource.listChildren(); iterator.hasNext(); ) {
+                children.add(iterator.next());
+            }
+            String prefix = path.equals("/") ? path : path + "/";
+            for (int i = children.size() - 1; i >= 0; i--) {
+                Resource child = children.get(i);
+                resources.push(child);
+                paths.push(prefix + child.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Compares a resource subtree with a golden file.
+ *
+ * <p>The subtree is serialized line by line (see {@link #serialize(Resource)} for the format) and compared with the
+ * memory-mapped golden file as a stream, stopping at the first difference. Only on a mismatch both sides are
+ * read completely, to describe the mismatch with a minimal line diff. Line endings of the golden file may be either
+ * {@code \n} or {@code \r\n}.</p>
+ *
+ * <p>In update mode the golden file is rewritten with the serialized subtree whenever it differs (or does not exist)
+ * and the matcher always matches. It is enabled with the system property {@value #UPDATE_PROPERTY} set to
+ * {@code true} or with {@link #ResourceSnapshotMatcher(Path, boolean)}.</p>
+ *
+ * @since 1.2.0
+ */
+public class ResourceSnapshotMatcher extends TypeSafeMatcher<Resource> {
+
+    /**
+     * Name of the system property enabling the update mode for matchers created with
+     * {@link #ResourceSnapshotMatcher(Path)}.
+     */
+    public static final String UPDATE_PROPERTY = "sling.hamcrest.updateSnapshots";
+
+    /**
+     * Maximum number of differing lines included in a mismatch description.
+     */
+    static final int MAX_REPORTED_LINES = 50;
+
+    private final Path goldenFile;
+    private final boolean update;
+
+    /**
+     * @param goldenFile the golden file, in update mode only if the system property {@value #UPDATE_PROPERTY} is
+     *     {@code true}
+     */
+    public ResourceSnapshotMatcher(Path goldenFile) {
+        this(goldenFile, Boolean.getBoolean(UPDATE_PROPERTY));
+    }
+
+    /**
+     * @param goldenFile the golden file
+     * @param update {@code true} to rewrite the golden file instead of failing on differences
+     */
+    public ResourceSnapshotMatcher(Path goldenFile, boolean update) {
+        if (goldenFile == null) {
+            throw new IllegalArgumentException("goldenFile is null");
+        }
+        this.goldenFile = goldenFile;
+        this.update = update;
+    }
+
+    /**
+     * Serializes the subtree of the given resource in the format used for golden files.
+     *
+     * <p>Every resource is written as a line with its path relative to the given resource ({@code /} for the
+     * resource itself), followed by one line per property in the form {@code <path> @<name>=<type>:<value>}, ordered
+     * by name. Resources are written in pre-order, children in the order they are listed. Each line is terminated
+     * by {@code \n}.</p>
+     *
+     * @param resource the root of the subtree
+     * @return the serialized subtree
+     */
+    public static String serialize(Resource resource) {
+        StringBuilder snapshot = new StringBuilder();
+        for (Iterator<String> lines = ResourceSnapshot.lines(resource); lines.hasNext(); ) {
+            snapshot.append(lines.next()).append('\n');
+        }
+        return snapshot.toString();
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("Resource tree matching snapshot ").appendValue(goldenFile);
+    }
+
+    @Override
+    protected boolean matchesSafely(Resource item) {
+        try {
+            if (update) {
+                byte[] actual = serialize(item).getBytes(StandardCharsets.UTF_8);
+                if (!Files.exists(goldenFile) || !Arrays.equals(Files.readAllBytes(goldenFile), actual)) {
+                    Path parent = goldenFile.toAbsolutePath().getParent();
+                    if (parent != null) {
+                        Files.createDirectories(parent);
+                    }
+                    Files.write(goldenFile, actual);
+                }
+                return true;
+            }
+            if (!Files.isRegularFile(goldenFile)) {
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(goldenFile, StandardOpenOption.READ)) {
+                MappedByteBuffer golden = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return matches(ResourceSnapshot.lines(item), golden);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to access golden file " + goldenFile, ex);
+        }
+    }
+
+    private static boolean matches(Iterator<String> lines, MappedByteBuffer golden) {
+        while (lines.hasNext()) {
+            byte[] line = lines.next().getBytes(StandardCharsets.UTF_8);
+            if (golden.remaining() < line.length) {
+                return false;
+            }
+            for (byte b : line) {
+                if (golden.get() != b) {
+                    return false;
+                }
+            }
+            if (!golden.hasRemaining()) {
+                // tolerate a missing line break at the end of the file
+                return !lines.hasNext();
+            }
+            byte next = golden.get();
+            if (next == '\r' && golden.hasRemaining()) {
+                next = golden.get();
+            }
+            if (next != '\n') {
+                return false;
+            }
+        }
+        return !golden.hasRemaining();
+    }
+
+    @Override
+    protected void describeMismatchSafely(Resource item, Description mismatchDescription) {
+        if (!Files.isRegularFile(goldenFile)) {
+            mismatchDescription
+                    .appendText("golden file ")
+                    .appendValue(goldenFile)
+                    .appendText(" does not exist, run with -D" + UPDATE_PROPERTY + "=true to create it");
+            return;
+        }
+        List<String> expected;
+        try {
+            expected = readLines(goldenFile);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read golden file " + goldenFile, ex);
+        }
+        List<String> differences = LineDiff.diff(expected, ResourceSnapshot.allLines(item));
+        mismatchDescription
+                .appendText("differed from snapshot in ")
+                .appendValue(differences.size())
+                .appendText(" lines:");
+        for (int i = 0; i < differences.size() && i < MAX_REPORTED_LINES; i++) {
+            mismatchDescription.appendText(System.lineSeparator() + "  ").appendText(differences.get(i));
+        }
+        if (differences.size() > MAX_REPORTED_LINES) {
+            mismatchDescription.appendText(System.lineSeparator() + "  ...");
+        }
+    }
+
+    private static List<String> readLines(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        int start = 0;
+        while (start < content.length()) {
+            int end = content.indexOf('\n', start);
+            if (end < 0) {
+                end = content.length();
+            }
+            int lineEnd = end > start && content.charAt(end - 1) == '\r' ? end - 1 : end;
+            lines.add(content.substring(start, lineEnd));
+            start = end + 1;
+        }
+        return lines;
+    }
+}
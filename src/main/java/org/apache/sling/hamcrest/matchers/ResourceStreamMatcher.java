@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Ensures that every, any or no resource of a stream matches a given matcher.
+ *
+ * <p>The stream is consumed lazily and evaluation stops as soon as the outcome is known. In parallel mode the stream
+ * is evaluated as unordered parallel stream, so its spliterator splits the work across the common fork join pool;
+ * this requires a matcher which can be used from several threads, and the index of a diverging resource is not
+ * known. The outcome observed while matching is recorded, because a stream cannot be consumed a second time for
+ * describing the mismatch.</p>
+ *
+ * @since 1.2.0
+ */
+public class ResourceStreamMatcher extends TypeSafeMatcher<Stream<Resource>> {
+
+    private enum Quantifier {
+        ALL("every"),
+        ANY("any"),
+        NONE("no");
+
+        private final String description;
+
+        Quantifier(String description) {
+            this.description = description;
+        }
+    }
+
+    private final Quantifier quantifier;
+    private final Matcher<? super Resource> matcher;
+    private final boolean parallel;
+    private final EvaluationRecord<Mismatch> mismatches = new EvaluationRecord<>();
+
+    private ResourceStreamMatcher(Quantifier quantifier, Matcher<? super Resource> matcher, boolean parallel) {
+        if (matcher == null) {
+            throw new IllegalArgumentException("matcher is null");
+        }
+        this.quantifier = quantifier;
+        this.matcher = matcher;
+        this.parallel = parallel;
+    }
+
+    /**
+     * @param matcher the matcher for the resources
+     * @param parallel {@code true} to evaluate the stream in parallel
+     * @return a matcher accepting streams in which every resource matches
+     */
+    public static ResourceStreamMatcher allMatch(Matcher<? super Resource> matcher, boolean parallel) {
+        return new ResourceStreamMatcher(Quantifier.ALL, matcher, parallel);
+    }
+
+    /**
+     * @param matcher the matcher for the resources
+     * @param parallel {@code true} to evaluate the stream in parallel
+     * @return a matcher accepting streams in which at least one resource matches
+     */
+    public static ResourceStreamMatcher anyMatch(Matcher<? super Resource> matcher, boolean parallel) {
+        return new ResourceStreamMatcher(Quantifier.ANY, matcher, parallel);
+    }
+
+    /**
+     * @param matcher the matcher for the resources
+     * @param parallel {@code true} to evaluate the stream in parallel
+     * @return a matcher accepting streams in which no resource matches
+     */
+    public static ResourceStreamMatcher noneMatch(Matcher<? super Resource> matcher, boolean parallel) {
+        return new ResourceStreamMatcher(Quantifier.NONE, matcher, parallel);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("stream where " + quantifier.description + " item is ").appendDescriptionOf(matcher);
+    }
+
+    @Override
+    protected boolean matchesSafely(Stream<Resource> items) {
+        Mismatch mismatch = parallel ? evaluateParallel(items) : evaluate(items);
+        if (mismatch == null) {
+            return true;
+        }
+        mismatches.record(items, mismatch);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(Stream<Resource> items, Description mismatchDescription) {
+        Mismatch mismatch = mismatches.take(items);
+        if (mismatch == null) {
+            mismatchDescription.appendText("was stream not evaluated before, which cannot be consumed again");
+            return;
+        }
+        if (mismatch.resource == null) {
+            mismatchDescription.appendText(
+                    mismatch.index < 0 ? "no item matched" : "none of " + mismatch.index + " items matched");
+            return;
+        }
+        mismatchDescription.appendText(mismatch.index < 0 ? "some item" : "item " + mismatch.index);
+        if (quantifier == Quantifier.NONE) {
+            mismatchDescription.appendText(" matched: ").appendValue(mismatch.resource);
+        } else {
+            mismatchDescription.appendText(": ");
+            matcher.describeMismatch(mismatch.resource, mismatchDescription);
+        }
+    }
+
+    /**
+     * Consumes the stream sequentially until the outcome is known.
+     * @param items the stream
+     * @return the mismatch or {@code null} in case the stream matched
+     */
+    private Mismatch evaluate(Stream<Resource> items) {
+        Iterator<Resource> iterator = items.iterator();
+        int index = 0;
+        while (iterator.hasNext()) {
+            Resource resource = iterator.next();
+            boolean matches = matcher.matches(resource);
+            if (quantifier == Quantifier.ANY && matches) {
+                return null;
+            }
+            if (quantifier == Quantifier.ALL && !matches || quantifier == Quantifier.NONE && matches) {
+                return new Mismatch(index, resource);
+            }
+            index++;
+        }
+        return quantifier == Quantifier.ANY ? new Mismatch(index, null) : null;
+    }
+
+    /**
+     * Consumes the stream as unordered parallel stream until the outcome is known.
+     * @param items the stream
+     * @return the mismatch, with an unknown index, or {@code null} in case the stream matched
+     */
+    private Mismatch evaluateParallel(Stream<Resource> items) {
+        Stream<Resource> stream = items.parallel().unordered();
+        if (quantifier == Quantifier.ANY) {
+            return stream.anyMatch(matcher::matches) ? null : new Mismatch(-1, null);
+        }
+        boolean expected = quantifier == Quantifier.ALL;
+        Optional<Resource> diverging = stream.filter(resource -> matcher.matches(resource) != expected).findAny();
+        return diverging.map(resource -> new Mismatch(-1, resource)).orElse(null);
+    }
+
+    private static final class Mismatch {
+
+        /** index of the diverging resource or number of evaluated resources, -1 if unknown */
+        private final int index;
+        /** the diverging resource or {@code null} if no resource matched */
+        private final Resource resource;
+
+        Mismatch(int index, Resource resource) {
+            this.index = index;
+            this.resource = resource;
+        }
+    }
+}
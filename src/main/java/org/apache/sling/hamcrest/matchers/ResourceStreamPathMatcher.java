@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.sling.api.resource.Resource;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Ensures a stream of resources has exactly the given list of paths in the given order.
+ *
+ * <p>The stream is consumed lazily through its iterator by a {@link ResourceIteratorPathMatcher}, so evaluation
+ * stops at the first resource which diverges from the expected paths. Only that mismatch is recorded for describing
+ * it, not the iterator, which would keep the whole stream pipeline and its source reachable.</p>
+ *
+ * @since 1.2.0
+ */
+public class ResourceStreamPathMatcher extends TypeSafeMatcher<Stream<Resource>> {
+
+    private final ResourceIteratorPathMatcher iteratorMatcher;
+    private final EvaluationRecord<ResourceIteratorPathMatcher.Mismatch> mismatches = new EvaluationRecord<>();
+
+    public ResourceStreamPathMatcher(List<String> paths) {
+        this.iteratorMatcher = new ResourceIteratorPathMatcher(paths);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("stream containing ");
+        iteratorMatcher.describeItems(description);
+    }
+
+    @Override
+    protected boolean matchesSafely(Stream<Resource> items) {
+        ResourceIteratorPathMatcher.Mismatch mismatch = iteratorMatcher.evaluate(items.iterator());
+        if (mismatch == null) {
+            return true;
+        }
+        mismatches.record(items, mismatch);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(Stream<Resource> items, Description mismatchDescription) {
+        ResourceIteratorPathMatcher.Mismatch mismatch = mismatches.take(items);
+        if (mismatch == null) {
+            mismatchDescription.appendText("was stream not evaluated before, which cannot be consumed again");
+            return;
+        }
+        iteratorMatcher.describeMismatch(mismatch, mismatchDescription);
+    }
+}
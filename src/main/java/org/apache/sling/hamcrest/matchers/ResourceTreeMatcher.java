@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
+import org.hamcrest.Description;
+import org.hamcrest.StringDescription;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Validates a whole resource subtree against an {@link ExpectedResourceTree} in a single walk.
+ *
+ * <p>The subtree is traversed with an explicit stack, so deep trees do not exhaust the call stack. When a
+ * {@link ForkJoinPool} is given, branches with at least {@value #FORK_THRESHOLD} expected resources are validated
+ * in parallel on that pool. Only use this with resource resolvers which may be accessed concurrently, which is not
+ * the case for most JCR based ones.</p>
+ *
+ * <p>All mismatches are reported, ordered by the position of the affected resource in the expected tree
+ * (pre-order), independent of the traversal order.</p>
+ *
+ * @since 1.2.0
+ */
+public class ResourceTreeMatcher extends TypeSafeMatcher<Resource> {
+
+    /**
+     * Minimum number of expected resources in a branch for it to be validated in a separate fork join task.
+     */
+    static final int FORK_THRESHOLD = 64;
+
+    private static final Comparator<Mismatch> BY_ORDINAL = Comparator.comparingInt(mismatch -> mismatch.ordinal);
+
+    private final Node root;
+    private final ForkJoinPool pool;
+    private final EvaluationRecord<List<Mismatch>> mismatches = new EvaluationRecord<>();
+
+    /**
+     * @param expected the expected tree, validated sequentially
+     */
+    public ResourceTreeMatcher(ExpectedResourceTree expected) {
+        this(expected, null);
+    }
+
+    /**
+     * @param expected the expected tree
+     * @param pool the pool to validate large branches in parallel with or {@code null} to validate sequentially
+     */
+    public ResourceTreeMatcher(ExpectedResourceTree expected, ForkJoinPool pool) {
+        if (expected == null) {
+            throw new IllegalArgumentException("expected is null");
+        }
+        this.root = compile(expected);
+        this.pool = pool;
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("Resource tree with ").appendValue(root.subtreeSize).appendText(" expected resources");
+    }
+
+    @Override
+    protected boolean matchesSafely(Resource item) {
+        List<Mismatch> found = validate(item);
+        if (found.isEmpty()) {
+            return true;
+        }
+        mismatches.record(item, found);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(Resource item, Description mismatchDescription) {
+        List<Mismatch> found = mismatches.take(item);
+        if (found == null) {
+            found = validate(item);
+        }
+        mismatchDescription.appendText("was Resource tree with ").appendValue(found.size()).appendText(" mismatches:");
+        for (Mismatch mismatch : found) {
+            mismatchDescription
+                    .appendText(System.lineSeparator() + "  ")
+                    .appendText(mismatch.path)
+                    .appendText(": ")
+                    .appendText(mismatch.message);
+        }
+    }
+
+    private List<Mismatch> validate(Resource resource) {
+        SubtreeValidation validation = new SubtreeValidation(resource, root, pool != null);
+        List<Mismatch> found = pool != null ? pool.invoke(validation) : validation.compute();
+        found.sort(BY_ORDINAL);
+        return found;
+    }
+
+    /**
+     * Converts the expected tree into immutable nodes, numbered in pre-order.
+     */
+    private static Node compile(ExpectedResourceTree expected) {
+        Node rootNode = new Node(null, null, expected);
+        List<Node> preOrder = new ArrayList<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(rootNode);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            node.ordinal = preOrder.size();
+            preOrder.add(node);
+            Map<String, ExpectedResourceTree> children = node.spec.getChildren();
+            node.children = new Node[children.size()];
+            int index = 0;
+            for (Map.Entry<String, ExpectedResourceTree> child : children.entrySet()) {
+                if (node.isSelfOrAncestor(child.getValue())) {
+                    throw new IllegalArgumentException("expected tree contains a cycle at child " + child.getKey());
+                }
+                node.children[index++] = new Node(node, child.getKey(), child.getValue());
+            }
+            for (int i = node.children.length - 1; i >= 0; i--) {
+                stack.push(node.children[i]);
+            }
+        }
+        // accumulate the subtree sizes bottom-up, children always follow their parent in pre-order
+        for (int i = preOrder.size() - 1; i > 0; i--) {
+            Node node = preOrder.get(i);
+            node.parent.subtreeSize += node.subtreeSize;
+        }
+        return rootNode;
+    }
+
+    private static final class Node {
+
+        private final Node parent;
+        private final ExpectedResourceTree spec;
+        private final String name;
+        private final String resourceType;
+        private final CompactPropertyMap properties;
+        private final Set<String> exactChildNames;
+        private Node[] children;
+        private int ordinal;
+        private int subtreeSize = 1;
+
+        Node(Node parent, String name, ExpectedResourceTree spec) {
+            this.parent = parent;
+            this.spec = spec;
+            this.name = name;
+            this.resourceType = spec.getResourceType();
+            this.properties = spec.getProperties();
+            this.exactChildNames = spec.isExactChildren() ? new HashSet<>(spec.getChildren().keySet()) : null;
+        }
+
+        boolean isSelfOrAncestor(ExpectedResourceTree candidate) {
+            for (Node node = this; node != null; node = node.parent) {
+                if (node.spec == candidate) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Mismatch {
+
+        private final int ordinal;
+        private final String path;
+        private final String message;
+
+        Mismatch(int ordinal, String path, String message) {
+            this.ordinal = ordinal;
+            this.path = path;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Validates one branch, forking off large sub-branches if the matcher was configured with a pool. Whether the
+     * calling thread is a fork join worker does not matter, the resource resolver is only accessed concurrently on
+     * request.
+     */
+    private static final class SubtreeValidation extends RecursiveTask<List<Mismatch>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Resource resource;
+        private final transient Node node;
+        private final boolean parallel;
+
+        SubtreeValidation(Resource resource, Node node, boolean parallel) {
+            this.resource = resource;
+            this.node = node;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected List<Mismatch> compute() {
+            List<Mismatch> found = new ArrayList<>();
+            List<SubtreeValidation> forked = new ArrayList<>();
+            Deque<Object> stack = new ArrayDeque<>();
+            stack.push(node);
+            stack.push(resource);
+            while (!stack.isEmpty()) {
+                Resource current = (Resource) stack.pop();
+                Node expected = (Node) stack.pop();
+                check(current, expected, found);
+                for (int i = expected.children.length - 1; i >= 0; i--) {
+                    Node expectedChild = expected.children[i];
+                    Resource child = current.getChild(expectedChild.name);
+                    if (child == null) {
+                        String path = childPath(current, expectedChild.name);
+                        found.add(new Mismatch(expectedChild.ordinal, path, "missing"));
+                    } else if (parallel && expectedChild.subtreeSize >= FORK_THRESHOLD) {
+                        SubtreeValidation task = new SubtreeValidation(child, expectedChild, true);
+                        task.fork();
+                        forked.add(task);
+                    } else {
+                        stack.push(expectedChild);
+                        stack.push(child);
+                    }
+                }
+            }
+            for (SubtreeValidation task : forked) {
+                found.addAll(task.join());
+            }
+            return found;
+        }
+
+        private static void check(Resource resource, Node expected, List<Mismatch> found) {
+            if (expected.resourceType != null && !expected.resourceType.equals(resource.getResourceType())) {
+                found.add(new Mismatch(
+                        expected.ordinal,
+                        resource.getPath(),
+                        "resource type " + quote(resource.getResourceType()) + " instead of "
+                                + quote(expected.resourceType)));
+            }
+            if (expected.properties != null) {
+                ValueMap actual = resource.getValueMap();
+                for (int i = 0; i < expected.properties.size(); i++) {
+                    String name = expected.properties.nameAt(i);
+                    Object expectedValue = expected.properties.valueAt(i);
+                    Object actualValue = actual.get(name);
+                    if (!PropertyValues.valueEquals(expectedValue, actualValue)) {
+                        Description message = new StringDescription();
+                        message.appendText("property ").appendValue(name).appendText(" was ");
+                        PropertyValues.appendValueAndType(message, actualValue);
+                        message.appendText(" instead of ");
+                        PropertyValues.appendValueAndType(message, expectedValue);
+                        found.add(new Mismatch(expected.ordinal, resource.getPath(), message.toString()));
+                    }
+                }
+            }
+            if (expected.exactChildNames != null) {
+                for (Iterator<Resource> children = resource.listChildren(); children.hasNext(); ) {
+                    Resource child = children.next();
+                    if (!expected.exactChildNames.contains(child.getName())) {
+                        found.add(new Mismatch(expected.ordinal, child.getPath(), "unexpected"));
+                    }
+                }
+            }
+        }
+
+        private static String childPath(Resource parent, String name) {
+            String parentPath = parent.getPath();
+            return parentPath.endsWith("/") ? parentPath + name : parentPath + "/" + name;
+        }
+
+        private static String quote(String value) {
+            return value == null ? "null" : "\"" + value + "\"";
+        }
+    }
+}
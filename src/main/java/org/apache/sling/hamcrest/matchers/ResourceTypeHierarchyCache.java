@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+
+/**
+ * Bounded cache of resource supertype chains, keyed by resource type, for checking whether resources are of a given
+ * resource type or derived from it without walking the supertype hierarchy through the resource resolver each time.
+ *
+ * <p>Supertype chains are looked up through the resolver of the checked resource, therefore a cache must only be used
+ * with resources of one resource resolver (or of resolvers seeing the same resource types). Use
+ * {@link #forResolver(ResourceResolver)} to share one cache per resource resolver. The least recently used chains
+ * are evicted once the maximum size is reached. Changes of the resource type hierarchy made after a chain was
+ * cached are not reflected.</p>
+ *
+ * <p>Instances are thread-safe.</p>
+ *
+ * @since 1.2.0
+ */
+public final class ResourceTypeHierarchyCache {
+
+    /**
+     * Maximum number of cached chains of the caches returned by {@link #forResolver(ResourceResolver)}.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /**
+     * Maximum length of a supertype chain, protecting against cycles.
+     */
+    static final int MAX_DEPTH = 50;
+
+    private static final Map<ResourceResolver, ResourceTypeHierarchyCache> SHARED = new WeakHashMap<>();
+
+    private final int maxSize;
+    private final Map<String, String[]> chains;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxSize the maximum number of cached supertype chains
+     */
+    public ResourceTypeHierarchyCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize is not positive");
+        }
+        this.maxSize = maxSize;
+        this.chains = new LinkedHashMap<String, String[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+                if (size() > ResourceTypeHierarchyCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param resolver a resource resolver
+     * @return the cache shared by all users of the given resource resolver, with at most {@value #DEFAULT_MAX_SIZE}
+     *     entries; it is released together with the resource resolver
+     */
+    public static ResourceTypeHierarchyCache forResolver(ResourceResolver resolver) {
+        if (resolver == null) {
+            throw new IllegalArgumentException("resolver is null");
+        }
+        synchronized (SHARED) {
+            return SHARED.computeIfAbsent(resolver, key -> new ResourceTypeHierarchyCache(DEFAULT_MAX_SIZE));
+        }
+    }
+
+    /**
+     * Same as {@link Resource#isResourceType(String)}, with the supertype chains taken from this cache.
+     * @param resource the resource
+     * @param resourceType the resource type
+     * @return {@code true} if the resource has the given resource type or is derived from it
+     */
+    public boolean isResourceType(Resource resource, String resourceType) {
+        ResourceResolver resolver = resource.getResourceResolver();
+        String[] searchPath = resolver.getSearchPath();
+        String actualType = resource.getResourceType();
+        if (typesEqual(resourceType, actualType, searchPath)) {
+            return true;
+        }
+        // a supertype defined by the resource itself takes precedence over the one of its resource type
+        String superType = resource.getResourceSuperType();
+        if (superType != null) {
+            if (typesEqual(resourceType, superType, searchPath)) {
+                return true;
+            }
+        } else {
+            superType = actualType;
+        }
+        for (String type : chain(resolver, superType)) {
+            if (typesEqual(resourceType, type, searchPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of lookups answered from the cache
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups which had to walk the hierarchy through the resource resolver
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return the number of chains evicted because the maximum size was reached
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of currently cached chains
+     */
+    public synchronized int size() {
+        return chains.size();
+    }
+
+    /**
+     * Removes all cached chains, e.g. after changing the resource type hierarchy. Statistics are kept.
+     */
+    public synchronized void clear() {
+        chains.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ResourceTypeHierarchyCache [size=" + chains.size() + ", maxSize=" + maxSize + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+
+    /**
+     * @return the supertypes of the given resource type, nearest first
+     */
+    private String[] chain(ResourceResolver resolver, String resourceType) {
+        synchronized (this) {
+            String[] chain = chains.get(resourceType);
+            if (chain != null) {
+                hits++;
+                return chain;
+            }
+            misses++;
+        }
+        // walk the hierarchy without holding the lock, concurrent misses for the same type are harmless
+        List<String> superTypes = new ArrayList<>();
+        Set<String> seen = new HashSet<>(Collections.singleton(resourceType));
+        String superType = resolver.getParentResourceType(resourceType);
+        while (superType != null && seen.add(superType) && superTypes.size() < MAX_DEPTH) {
+            superTypes.add(superType);
+            superType = resolver.getParentResourceType(superType);
+        }
+        String[] chain = superTypes.toArray(new String[0]);
+        synchronized (this) {
+            chains.put(resourceType, chain);
+        }
+        return chain;
+    }
+
+    private static boolean typesEqual(String expected, String actual, String[] searchPath) {
+        if (actual == null) {
+            return false;
+        }
+        return expected.equals(actual) || relativeType(expected, searchPath).equals(relativeType(actual, searchPath));
+    }
+
+    /**
+     * @return the resource type without a leading search path, e.g. {@code my/type} for {@code /apps/my/type}
+     */
+    private static String relativeType(String resourceType, String[] searchPath) {
+        if (resourceType.startsWith("/")) {
+            for (String path : searchPath) {
+                if (resourceType.startsWith(path)) {
+                    return resourceType.substring(path.length());
+                }
+            }
+        }
+        return resourceType;
+    }
+}
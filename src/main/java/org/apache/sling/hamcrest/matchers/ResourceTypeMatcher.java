@@ -29,10 +29,27 @@ public class ResourceTypeMatcher extends TypeSafeMatcher<Resource> {
 
     private final String type;
     private final boolean allowSubtypes;
+    private final ResourceTypeHierarchyCache hierarchyCache;
 
     public ResourceTypeMatcher(String type, boolean allowSubtypes) {
         this.type = type;
         this.allowSubtypes = allowSubtypes;
+        this.hierarchyCache = null;
+    }
+
+    /**
+     * Matches the given type or derived types, looking up the supertypes through the given cache.
+     * @param type the resource type
+     * @param hierarchyCache the cache of supertype chains
+     * @since 1.2.0
+     */
+    public ResourceTypeMatcher(String type, ResourceTypeHierarchyCache hierarchyCache) {
+        if (hierarchyCache == null) {
+            throw new IllegalArgumentException("hierarchyCache is null");
+        }
+        this.type = type;
+        this.allowSubtypes = true;
+        this.hierarchyCache = hierarchyCache;
     }
 
     @Override
@@ -42,7 +59,9 @@ public class ResourceTypeMatcher extends TypeSafeMatcher<Resource> {
 
     @Override
     protected boolean matchesSafely(Resource resource) {
-        if (allowSubtypes) {
+        if (hierarchyCache != null) {
+            return hierarchyCache.isResourceType(resource, type);
+        } else if (allowSubtypes) {
             return resource.isResourceType(type);
         } else {
             return type.equals(resource.getResourceType());
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
+import org.hamcrest.Description;
+import org.hamcrest.StringDescription;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Matches resource trees with the same content as an expected tree: the same resource types, properties and child
+ * resources (by name, regardless of their order) on every level. The names of the two root resources are not
+ * compared.
+ *
+ * <p>Both trees are fingerprinted bottom-up first, each resource with a 64 bit hash of its resource type,
+ * properties and the names and fingerprints of its children. The fingerprints are cached by path for the duration
+ * of one evaluation, so when the root fingerprints differ only the branches with differing fingerprints are
+ * compared in detail. Equal fingerprints are only trusted for subtrees in which all values are fingerprinted from
+ * all their bits (strings, boxed primitives and arrays of them), other subtrees are always compared in detail with
+ * {@link PropertyValues#valueEquals(Object, Object)}. Binary properties ({@link InputStream} values) are compared
+ * by presence only.</p>
+ *
+ * @since 1.2.0
+ */
+public class SameResourceTreeMatcher extends TypeSafeMatcher<Resource> {
+
+    /**
+     * Maximum number of differences included in a mismatch description.
+     */
+    static final int MAX_REPORTED_DIFFERENCES = 50;
+
+    private static final long BINARY = Fingerprints.of("<binary>");
+
+    private final Resource expected;
+    private final EvaluationRecord<List<String>> differences = new EvaluationRecord<>();
+
+    /**
+     * @param expected the root of the expected tree
+     */
+    public SameResourceTreeMatcher(Resource expected) {
+        if (expected == null) {
+            throw new IllegalArgumentException("expected is null");
+        }
+        this.expected = expected;
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("Resource tree same as ").appendValue(expected.getPath());
+    }
+
+    @Override
+    protected boolean matchesSafely(Resource item) {
+        List<String> found = compare(item);
+        if (found.isEmpty()) {
+            return true;
+        }
+        differences.record(item, found);
+        return false;
+    }
+
+    @Override
+    protected void describeMismatchSafely(Resource item, Description mismatchDescription) {
+        List<String> found = differences.take(item);
+        if (found == null) {
+            found = compare(item);
+        }
+        mismatchDescription.appendText("was Resource tree with ").appendValue(found.size()).appendText(" differences:");
+        for (int i = 0; i < found.size() && i < MAX_REPORTED_DIFFERENCES; i++) {
+            mismatchDescription.appendText(System.lineSeparator() + "  ").appendText(found.get(i));
+        }
+        if (found.size() > MAX_REPORTED_DIFFERENCES) {
+            mismatchDescription.appendText(System.lineSeparator() + "  ...");
+        }
+    }
+
+    private List<String> compare(Resource actual) {
+        Map<String, Long> expectedFingerprints = new HashMap<>();
+        Map<String, Long> actualFingerprints = new HashMap<>();
+        Set<String> inexactPaths = new HashSet<>();
+        long expectedFingerprint = fingerprint(expected, expectedFingerprints, inexactPaths);
+        long actualFingerprint = fingerprint(actual, actualFingerprints, inexactPaths);
+        List<String> found = new ArrayList<>();
+        if (expectedFingerprint == actualFingerprint && isExact(expected, actual, inexactPaths)) {
+            return found;
+        }
+
+        // descend only into pairs of resources with differing fingerprints, or equal but inexact ones
+        Deque<Object> stack = new ArrayDeque<>();
+        stack.push("/");
+        stack.push(actual);
+        stack.push(expected);
+        while (!stack.isEmpty()) {
+            Resource expectedResource = (Resource) stack.pop();
+            Resource actualResource = (Resource) stack.pop();
+            String path = (String) stack.pop();
+            compareResource(path, expectedResource, actualResource, found);
+
+            Map<String, Resource> actualChildren = children(actualResource);
+            String prefix = path.equals("/") ? path : path + "/";
+            List<Object> differingChildren = new ArrayList<>();
+            for (Iterator<Resource> children = expectedResource.listChildren(); children.hasNext(); ) {
+                Resource expectedChild = children.next();
+                Resource actualChild = actualChildren.remove(expectedChild.getName());
+                String childPath = prefix + expectedChild.getName();
+                if (actualChild == null) {
+                    found.add(childPath + ": missing");
+                } else if (!expectedFingerprints
+                                .get(expectedChild.getPath())
+                                .equals(actualFingerprints.get(actualChild.getPath()))
+                        || !isExact(expectedChild, actualChild, inexactPaths)) {
+                    differingChildren.add(childPath);
+                    differingChildren.add(actualChild);
+                    differingChildren.add(expectedChild);
+                }
+            }
+            // push in reverse, so that the differing children are compared in the order they are listed
+            for (int i = differingChildren.size() - 1; i >= 0; i -= 3) {
+                stack.push(differingChildren.get(i - 2));
+                stack.push(differingChildren.get(i - 1));
+                stack.push(differingChildren.get(i));
+            }
+            for (String name : actualChildren.keySet()) {
+                found.add(prefix + name + ": unexpected");
+            }
+        }
+        return found;
+    }
+
+    private static void compareResource(String path, Resource expected, Resource actual, List<String> found) {
+        String expectedType = expected.getResourceType();
+        String actualType = actual.getResourceType();
+        if (expectedType == null ? actualType != null : !expectedType.equals(actualType)) {
+            found.add(path + ": resource type " + quote(actualType) + " instead of " + quote(expectedType));
+        }
+        ValueMap expectedProps = expected.getValueMap();
+        ValueMap actualProps = actual.getValueMap();
+        // report the properties ordered by name
+        for (String name : new TreeSet<>(expectedProps.keySet())) {
+            Object expectedValue = expectedProps.get(name);
+            Object actualValue = actualProps.get(name);
+            if (!(expectedValue instanceof InputStream && actualValue instanceof InputStream)
+                    && !PropertyValues.valueEquals(expectedValue, actualValue)) {
+                Description message = new StringDescription();
+                message.appendText(path).appendText(": property ").appendValue(name).appendText(" was ");
+                PropertyValues.appendValueAndType(message, actualValue);
+                message.appendText(" instead of ");
+                PropertyValues.appendValueAndType(message, expectedValue);
+                found.add(message.toString());
+            }
+        }
+        for (String name : new TreeSet<>(actualProps.keySet())) {
+            if (!expectedProps.containsKey(name)) {
+                Description message = new StringDescription();
+                message.appendText(path).appendText(": unexpected property ").appendValue(name).appendText(" with ");
+                PropertyValues.appendValueAndType(message, actualProps.get(name));
+                found.add(message.toString());
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if equal fingerprints of the given resources prove their subtrees to be the same
+     */
+    private static boolean isExact(Resource expectedResource, Resource actualResource, Set<String> inexactPaths) {
+        return !inexactPaths.contains(expectedResource.getPath()) && !inexactPaths.contains(actualResource.getPath());
+    }
+
+    private static Map<String, Resource> children(Resource resource) {
+        Map<String, Resource> children = new LinkedHashMap<>();
+        for (Iterator<Resource> iterator = resource.listChildren(); iterator.hasNext(); ) {
+            Resource child = iterator.next();
+            children.put(child.getName(), child);
+        }
+        return children;
+    }
+
+    /**
+     * Computes the fingerprints of all resources of a tree bottom-up, with an explicit stack.
+     * @param root the root resource
+     * @param fingerprints receives the fingerprints by resource path
+     * @param inexactPaths receives the paths of the resources with a subtree containing values which are only
+     *     fingerprinted by their hash code, see {@link Fingerprints#isExact(Object)}
+     * @return the fingerprint of the root resource
+     */
+    private static long fingerprint(Resource root, Map<String, Long> fingerprints, Set<String> inexactPaths) {
+        Deque<Frame> stack = new ArrayDeque<>();
+        stack.push(new Frame(root));
+        long fingerprint = 0L;
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            if (frame.children.hasNext()) {
+                stack.push(new Frame(frame.children.next()));
+                continue;
+            }
+            stack.pop();
+            fingerprint = Fingerprints.combine(frame.content, frame.childrenSum);
+            fingerprints.put(frame.resource.getPath(), fingerprint);
+            if (!frame.exact) {
+                inexactPaths.add(frame.resource.getPath());
+            }
+            Frame parent = stack.peek();
+            if (parent != null) {
+                parent.exact &= frame.exact;
+                // summing makes the fingerprint independent of the order of the children
+                parent.childrenSum += Fingerprints.combine(Fingerprints.of(frame.resource.getName()), fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    private static String quote(String value) {
+        return value == null ? "null" : "\"" + value + "\"";
+    }
+
+    private static final class Frame {
+
+        private final Resource resource;
+        private final Iterator<Resource> children;
+        private final long content;
+        private long childrenSum;
+        private boolean exact = true;
+
+        Frame(Resource resource) {
+            this.resource = resource;
+            this.children = resource.listChildren();
+            long propertiesSum = 0L;
+            // summing makes the fingerprint independent of the order of the properties
+            for (Map.Entry<String, Object> property : resource.getValueMap().entrySet()) {
+                Object value = property.getValue();
+                long valueFingerprint = value instanceof InputStream ? BINARY : Fingerprints.ofValue(value);
+                exact &= value instanceof InputStream || Fingerprints.isExact(value);
+                propertiesSum += Fingerprints.combine(Fingerprints.of(property.getKey()), valueFingerprint);
+            }
+            this.content = Fingerprints.combine(Fingerprints.of(resource.getResourceType()), propertiesSum);
+        }
+    }
+}
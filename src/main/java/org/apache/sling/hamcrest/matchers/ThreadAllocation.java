@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest.matchers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Access to the number of bytes allocated by the current thread, as provided by
+ * {@code com.sun.management.ThreadMXBean} on HotSpot based JVMs.
+ */
+final class ThreadAllocation {
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = lookup();
+
+    private ThreadAllocation() {
+        // static methods only
+    }
+
+    /**
+     * @return {@code true} if the allocated bytes can be measured on this JVM
+     */
+    static boolean isSupported() {
+        return THREAD_BEAN != null;
+    }
+
+    /**
+     * @return the total number of bytes allocated by the current thread so far
+     */
+    static long currentThreadAllocatedBytes() {
+        return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean lookup() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+                return null;
+            }
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (!sunBean.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return sunBean;
+        } catch (LinkageError | UnsupportedOperationException | SecurityException ex) {
+            // com.sun.management is not available (or not accessible) on this JVM
+            return null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.testing.mock.sling.junit5.SlingContext;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SlingContextExtension.class)
+class BatchResourceMatcherTest {
+
+    private final SlingContext context = new SlingContext();
+
+    private final List<Resource> resources = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 100; i++) {
+            resources.add(context.create().resource("/content/page" + i, "index", i % 10));
+        }
+    }
+
+    @Test
+    void testEvaluate() {
+        List<MatchResult> results = new ArrayList<>();
+        MatchReport report = BatchResourceMatcher.of(
+                        ResourceMatchers.props("index", 0), ResourceMatchers.hasNoChildren())
+                .evaluate(resources, results::add);
+
+        assertEquals(100, report.getResourceCount());
+        assertEquals(10, report.getPassedCount());
+        assertEquals(90, report.getFailedCount());
+        assertFalse(report.isPassed());
+        assertEquals(200, results.size());
+
+        List<MatchReport.MatcherStatistics> statistics = report.getMatcherStatistics();
+        assertEquals(2, statistics.size());
+        assertEquals(10, statistics.get(0).getPassedCount());
+        assertEquals(90, statistics.get(0).getFailedCount());
+        assertEquals(0.1, statistics.get(0).getPassRate(), 0.0001);
+        assertEquals(100, statistics.get(1).getPassedCount());
+        assertTrue(report.toString().startsWith("10 of 100 resources passed in "), report.toString());
+        assertTrue(
+                report.toString().endsWith(System.lineSeparator() + "  " + statistics.get(1)), report.toString());
+
+        MatchResult passed = results.get(0);
+        assertEquals("/content/page0", passed.getPath());
+        assertTrue(passed.isPassed());
+        assertNull(passed.getMismatchDescription());
+
+        MatchResult failed = results.get(2);
+        assertEquals("/content/page1", failed.getPath());
+        assertFalse(failed.isPassed());
+        assertTrue(failed.getMismatchDescription().contains("index"), failed.getMismatchDescription());
+    }
+
+    @Test
+    void testEvaluateParallel() {
+        List<MatchResult> failures = new ArrayList<>();
+        MatchReport report = BatchResourceMatcher.of(ResourceMatchers.props("index", 0))
+                .withParallelism(4)
+                .evaluate(resources.iterator(), result -> {
+                    if (!result.isPassed()) {
+                        failures.add(result);
+                    }
+                });
+
+        assertEquals(100, report.getResourceCount());
+        assertEquals(10, report.getPassedCount());
+        assertEquals(90, failures.size());
+    }
+
+    @Test
+    void testEvaluateAllPassed() {
+        MatchReport report =
+                BatchResourceMatcher.of(ResourceMatchers.resourceType("nt:unstructured")).evaluate(resources);
+
+        assertTrue(report.isPassed());
+        assertEquals(100, report.getPassedCount());
+    }
+
+    @Test
+    void testMatcherFailure() {
+        Matcher<Resource> throwing = new TypeSafeMatcher<Resource>() {
+            @Override
+            protected boolean matchesSafely(Resource item) {
+                throw new IllegalStateException("broken " + item.getName());
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("throwing");
+            }
+        };
+        List<MatchResult> results = new ArrayList<>();
+        MatchReport report =
+                BatchResourceMatcher.of(throwing).withParallelism(2).evaluate(resources.subList(0, 1), results::add);
+
+        assertEquals(1, report.getFailedCount());
+        assertEquals(1, report.getMatcherStatistics().get(0).getFailedCount());
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).getFailure() instanceof IllegalStateException);
+        assertEquals(
+                "threw java.lang.IllegalStateException: broken page0",
+                results.get(0).getMismatchDescription());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, BatchResourceMatcher::of);
+        BatchResourceMatcher matcher = BatchResourceMatcher.of(ResourceMatchers.props("index", 0));
+        assertThrows(IllegalArgumentException.class, () -> matcher.withParallelism(0));
+        assertThrows(IllegalArgumentException.class, () -> matcher.evaluate((Iterable<Resource>) null));
+    }
+}
@@ -19,11 +19,14 @@
 package org.apache.sling.hamcrest;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class MapUtilTest {
@@ -67,4 +70,61 @@ class MapUtilTest {
     void testMapObjectVarArgs_OddNumberOfArgs() {
         assertThrows(IllegalArgumentException.class, () -> MapUtil.toMap("param1", "var1", "param2", 123, "param3"));
     }
+
+    @Test
+    void testMapObjectMap_Copied() {
+        Map<String, Object> source = new HashMap<>(EXPECTED_MAP);
+        Map<String, Object> convertedMap = MapUtil.toMap(source);
+        source.put("param4", "var4");
+
+        assertEquals(EXPECTED_MAP, convertedMap);
+    }
+
+    @Test
+    void testMapObjectVarargs_Immutable() {
+        Map<String, Object> convertedMap = MapUtil.toMap("param1", "var1");
+
+        assertThrows(UnsupportedOperationException.class, () -> convertedMap.put("param2", "var2"));
+        assertThrows(UnsupportedOperationException.class, () -> convertedMap.remove("param1"));
+    }
+
+    @Test
+    void testMapObjectVarargs_ManyEntries() {
+        Object[] args = new Object[100];
+        Map<String, Object> expected = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            args[i * 2] = "param" + i;
+            args[i * 2 + 1] = i % 5 == 0 ? null : i;
+            expected.put("param" + i, args[i * 2 + 1]);
+        }
+        Map<String, Object> convertedMap = MapUtil.toMap(args);
+
+        assertEquals(expected, convertedMap);
+        assertEquals(expected.hashCode(), convertedMap.hashCode());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(expected.get("param" + i), convertedMap.get("param" + i));
+        }
+        assertNull(convertedMap.get("param50"));
+        assertFalse(convertedMap.containsKey("param50"));
+        assertFalse(convertedMap.containsKey(1));
+    }
+
+    @Test
+    void testMapObjectVarargs_DuplicateKeys() {
+        Map<String, Object> convertedMap = MapUtil.toMap("param1", "var1", "param2", 123, "param1", "var2");
+
+        assertEquals(Map.of("param1", "var2", "param2", 123), convertedMap);
+    }
+
+    @Test
+    void testMapObjectVarargs_NonStringKeys() {
+        Map<String, Object> convertedMap = MapUtil.toMap(1, "var1", Boolean.TRUE, "var2");
+
+        assertEquals(Map.of("1", "var1", "true", "var2"), convertedMap);
+    }
+
+    @Test
+    void testMapObjectVarargs_NullKey() {
+        assertThrows(IllegalArgumentException.class, () -> MapUtil.toMap("param1", "var1", null, "var2"));
+    }
 }
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.hamcrest.matchers.ResourceAccessCounter;
+import org.apache.sling.testing.mock.sling.junit5.SlingContext;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SlingContextExtension.class)
+class ResourceAccessMatchersTest {
+
+    private final SlingContext context = new SlingContext();
+
+    @BeforeEach
+    void setUp() {
+        context.build()
+                .resource("/parent", "key", "value")
+                .resource("a")
+                .resource("b")
+                .resource("/parent/c");
+    }
+
+    @Test
+    void testAccessesAtMost() {
+        Resource resource = context.resourceResolver().getResource("/parent");
+
+        // calls on resources reached from the given one are counted as well
+        Matcher<Resource> matcher = ResourceAccessMatchers.accessesAtMost("getChild", 3, parent -> {
+            parent.getChild("a");
+            Resource a = parent.getChild("a");
+            a.getChild("b").getValueMap();
+        });
+        assertThat(resource, matcher);
+        assertThat(
+                resource,
+                ResourceAccessMatchers.accessesAtMost("getValueMap", 2, parent -> {
+                    for (Iterator<Resource> children = parent.listChildren(); children.hasNext(); ) {
+                        children.next().getValueMap();
+                    }
+                }));
+
+        Matcher<Resource> tooMany = ResourceAccessMatchers.accessesAtMost("getChild", 2, parent -> {
+            parent.getChild("a");
+            Resource a = parent.getChild("a");
+            a.getChild("b").getValueMap();
+        });
+        assertFalse(tooMany.matches(resource));
+        StringDescription description = new StringDescription();
+        tooMany.describeMismatch(resource, description);
+        assertEquals(
+                "called Resource.getChild 3 times (all calls: {getChild=3, getValueMap=1})", description.toString());
+        assertEquals("operation calling Resource.getChild at most 2 times", StringDescription.toString(tooMany));
+
+        assertThrows(
+                IllegalArgumentException.class, () -> ResourceAccessMatchers.accessesAtMost("unknown", 1, r -> {}));
+    }
+
+    @Test
+    void testResolvesAtMost() {
+        ResourceResolver resolver = context.resourceResolver();
+        Matcher<ResourceResolver> matcher = ResourceAccessMatchers.resolvesAtMost(2, r -> {
+            Resource parent = r.getResource("/parent");
+            r.getResource(parent, "a").getChild("b");
+            r.listChildren(parent).next();
+        });
+        assertThat(resolver, matcher);
+        assertThat(
+                resolver,
+                ResourceAccessMatchers.callsAtMost("listChildren", 1, r -> r.listChildren(r.resolve("/parent"))));
+
+        Matcher<ResourceResolver> tooMany = ResourceAccessMatchers.resolvesAtMost(1, r -> {
+            Resource parent = r.resolve("/parent");
+            r.getResource(parent, "a").getChild("b");
+        });
+        assertThat(resolver, not(tooMany));
+        StringDescription description = new StringDescription();
+        tooMany.describeMismatch(resolver, description);
+        assertEquals(
+                "called ResourceResolver.getResource or ResourceResolver.resolve 2 times"
+                        + " (all calls: {getResource=1, resolve=1})",
+                description.toString());
+    }
+
+    @Test
+    void testCounter() throws Exception {
+        ResourceAccessCounter counter = new ResourceAccessCounter();
+        Resource parent = context.resourceResolver().getResource("/parent");
+        Resource wrapped = counter.wrap(parent);
+        assertNotSame(parent, wrapped);
+        assertEquals(wrapped, counter.wrap(wrapped));
+        assertEquals(parent.getPath(), wrapped.getPath());
+
+        // wrapped resources are unwrapped when passed to the resolver
+        ResourceResolver resolver = counter.wrap(context.resourceResolver());
+        assertEquals("/parent/a", resolver.getResource(wrapped, "a").getPath());
+        // once on the wrapped resource and once on the wrapped child returned by the resolver
+        assertEquals(2, counter.getResourceCalls("getPath"));
+        assertEquals(1, counter.getResolverCalls("getResource"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        wrapped.getValueMap();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(4000, counter.getResourceCalls("getValueMap"));
+
+        counter.reset();
+        assertEquals(0, counter.getResourceCalls("getValueMap"));
+        assertEquals(0, counter.getResourceCallCounts().size());
+        assertThrows(IllegalArgumentException.class, () -> counter.getResolverCalls("getChild"));
+    }
+}
@@ -18,17 +18,23 @@
  */
 package org.apache.sling.hamcrest;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.testing.mock.sling.junit5.SlingContext;
 import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(SlingContextExtension.class)
 class ResourceCollectionMatchersTest {
@@ -56,4 +62,107 @@ class ResourceCollectionMatchersTest {
         assertThat(list, not(ResourceCollectionMatchers.paths("/content/1", "/content/2")));
         assertThat(list, not(ResourceCollectionMatchers.paths("/content/1", "/content/3", "/content/2")));
     }
+
+    @Test
+    void testPathsInAnyOrder() {
+        assertThat(list, ResourceCollectionMatchers.pathsInAnyOrder("/content/1", "/content/2", "/content/3"));
+        assertThat(list, ResourceCollectionMatchers.pathsInAnyOrder("/content/3", "/content/1", "/content/2"));
+        assertThat(list, not(ResourceCollectionMatchers.pathsInAnyOrder("/content/1", "/content/2")));
+        assertThat(list, not(ResourceCollectionMatchers.pathsInAnyOrder("/content/1", "/content/2", "/content/4")));
+
+        List<Resource> duplicates = List.of(list.get(0), list.get(0), list.get(1));
+        Matcher<Collection<Resource>> matcher =
+                ResourceCollectionMatchers.pathsInAnyOrder("/content/1", "/content/2", "/content/3");
+        assertThat(duplicates, not(matcher));
+
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(duplicates, description);
+        assertEquals(
+                "was collection of 3 resources, missing [\"/content/3\"], unexpected [\"/content/1\"]",
+                description.toString());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ResourceCollectionMatchers.pathsInAnyOrder("/content/1", "/content/1"));
+    }
+
+    @Test
+    void testPathsInAnyOrderLarge() {
+        List<Resource> resources = new ArrayList<>();
+        String[] paths = new String[10_000];
+        for (int i = 0; i < paths.length; i++) {
+            paths[paths.length - 1 - i] = "/content/large/" + i;
+            resources.add(context.create().resource("/content/large/" + i));
+        }
+        assertThat(resources, ResourceCollectionMatchers.pathsInAnyOrder(paths));
+
+        paths[0] = "/content/large/other";
+        Matcher<Collection<Resource>> matcher = ResourceCollectionMatchers.pathsInAnyOrder(paths);
+        assertThat(resources, not(matcher));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(resources, description);
+        assertEquals(
+                "was collection of 10000 resources, missing [\"/content/large/other\"],"
+                        + " unexpected [\"/content/large/9999\"]",
+                description.toString());
+    }
+
+    @Test
+    void testContainsPaths() {
+        assertThat(list, ResourceCollectionMatchers.containsPaths("/content/3", "/content/1"));
+        assertThat(list, not(ResourceCollectionMatchers.containsPaths("/content/3", "/content/4")));
+        assertThat(list, not(ResourceCollectionMatchers.containsPaths("/content/1", "/content/2", "/content/3", "/a")));
+
+        StringDescription description = new StringDescription();
+        ResourceCollectionMatchers.containsPaths("/content/4", "/content/2").describeMismatch(list, description);
+        assertEquals("was collection of 3 resources, missing [\"/content/4\"]", description.toString());
+    }
+
+    @Test
+    void testDoesNotContainPaths() {
+        assertThat(list, ResourceCollectionMatchers.doesNotContainPaths("/content/4", "/content"));
+        assertThat(list, not(ResourceCollectionMatchers.doesNotContainPaths("/content/4", "/content/2")));
+
+        StringDescription description = new StringDescription();
+        ResourceCollectionMatchers.doesNotContainPaths("/content/2", "/content/1").describeMismatch(list, description);
+        assertEquals(
+                "was collection of 3 resources containing [\"/content/2\", \"/content/1\"]", description.toString());
+    }
+
+    @Test
+    void testAllPathsMatching() {
+        assertThat(list, ResourceCollectionMatchers.allPathsMatching("/content/?"));
+        assertThat(list, ResourceCollectionMatchers.allPathsUnder("/content"));
+        assertThat(list, not(ResourceCollectionMatchers.allPathsUnder("/content/1", "/content/2")));
+
+        StringDescription description = new StringDescription();
+        ResourceCollectionMatchers.allPathsMatching("/content/[12]").describeMismatch(list, description);
+        assertEquals("item 0 has path \"/content/1\" (resource: <" + list.get(0) + ">)", description.toString());
+    }
+
+    @Test
+    void testNoPathMatching() {
+        List<Resource> results = List.of(
+                context.create().resource("/content/site/en/page"),
+                context.create().resource("/content/dam/site/image.png"),
+                context.create().resource("/content/site/en/page/jcr:content/par"));
+        Matcher<Collection<Resource>> underRoots =
+                ResourceCollectionMatchers.allPathsUnder("/content/site/en", "/content/dam/site");
+        Matcher<Collection<Resource>> notInContent = ResourceCollectionMatchers.noPathMatching("**/jcr:content/**");
+
+        assertThat(results.subList(0, 2), underRoots);
+        assertThat(results.subList(0, 2), notInContent);
+        assertThat(results, underRoots);
+        assertThat(results, not(notInContent));
+        // unlike not(allPathsMatching(..)), which only requires a single path not to match
+        assertThat(results, not(ResourceCollectionMatchers.allPathsMatching("**/jcr:content/**")));
+
+        assertEquals(
+                "collection of resources none with path matching \"**/jcr:content/**\"",
+                StringDescription.toString(notInContent));
+        StringDescription description = new StringDescription();
+        notInContent.describeMismatch(results, description);
+        assertEquals(
+                "item 2 has path \"/content/site/en/page/jcr:content/par\" (resource: <" + results.get(2) + ">)",
+                description.toString());
+    }
 }
@@ -18,17 +18,23 @@
  */
 package org.apache.sling.hamcrest;
 
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.hamcrest.matchers.PathPattern;
 import org.apache.sling.testing.mock.sling.junit5.SlingContext;
 import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 @ExtendWith(SlingContextExtension.class)
 class ResourceIteratorMatchersTest {
@@ -58,4 +64,67 @@ class ResourceIteratorMatchersTest {
         assertThat(list.iterator(), not(ResourceIteratorMatchers.paths("/content/1", "/content/2")));
         assertThat(list.iterator(), not(ResourceIteratorMatchers.paths("/content/1", "/content/3", "/content/2")));
     }
+
+    @Test
+    void testMisMatchDescriptionAfterIteratorIsConsumed() {
+        Matcher<Iterator<Resource>> matcher = ResourceIteratorMatchers.paths("/content/1", "/content/3");
+        Iterator<Resource> items = list.iterator();
+        assertFalse(matcher.matches(items));
+
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(items, description);
+        assertThat(
+                description.toString(),
+                equalTo("item 1: was Resource with path \"/content/2\" (resource: <" + list.get(1)
+                        + ">), preceded by [\"/content/1\"]"));
+    }
+
+    @Test
+    void testMisMatchStopsAtFirstDivergence() {
+        // never ending iterator, evaluation must not try to consume it completely
+        Iterator<Resource> items = new Iterator<Resource>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Resource next() {
+                return list.get(0);
+            }
+        };
+        assertThat(items, not(ResourceIteratorMatchers.paths("/content/1", "/content/2")));
+    }
+
+    @Test
+    void testAllPathsMatching() {
+        assertThat(list.iterator(), ResourceIteratorMatchers.allPathsMatching("/content/*"));
+        assertThat(list.iterator(), ResourceIteratorMatchers.allPathsMatching(PathPattern.under("/content")));
+
+        Matcher<Iterator<Resource>> matcher = ResourceIteratorMatchers.allPathsUnder("/content/1", "/content/2");
+        Iterator<Resource> items = list.iterator();
+        assertFalse(matcher.matches(items));
+
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(items, description);
+        assertThat(
+                description.toString(),
+                equalTo("item 2 has path \"/content/3\" (resource: <" + list.get(2) + ">)"));
+    }
+
+    @Test
+    void testNoPathMatching() {
+        assertThat(list.iterator(), ResourceIteratorMatchers.noPathMatching("/content/*/**"));
+        assertThat(list.iterator(), ResourceIteratorMatchers.noPathMatching(PathPattern.under("/content/4")));
+
+        Matcher<Iterator<Resource>> matcher = ResourceIteratorMatchers.noPathMatching(PathPattern.glob("**/2"));
+        Iterator<Resource> items = list.iterator();
+        assertFalse(matcher.matches(items));
+
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(items, description);
+        assertThat(
+                description.toString(),
+                equalTo("item 1 has path \"/content/2\" (resource: <" + list.get(1) + ">)"));
+    }
 }
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.testing.mock.sling.junit5.SlingContext;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Evaluates shared matcher instances from many threads at once and verifies that each mismatch description only
+ * refers to the resource evaluated by the describing thread.
+ */
+@ExtendWith(SlingContextExtension.class)
+class ResourceMatchersConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 2000;
+    private static final int RESOURCES = 32;
+
+    private final SlingContext context = new SlingContext();
+
+    private final List<Resource> resources = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < RESOURCES; i++) {
+            // odd resources only mismatch in property "other", even ones only in property "key"
+            boolean odd = i % 2 == 1;
+            Resource resource = context.create()
+                    .resource(
+                            "/content/resource" + i, "key", "actual" + (odd ? 0 : i), "other", "other" + (odd ? i : 0));
+            context.create().resource(resource.getPath() + "/child" + i);
+            resources.add(resource);
+        }
+    }
+
+    @Test
+    void testSharedResourceMatchers() throws Exception {
+        // only resource0 matches, all other resources mismatch in a way specific to them
+        Matcher<Resource> props = ResourceMatchers.props("key", "actual0", "other", "other0");
+        Matcher<Resource> nameAndProps =
+                ResourceMatchers.nameAndProps("resource0", "key", "actual0", "other", "other0");
+        Matcher<Resource> containsChildren = ResourceMatchers.containsChildren("child0");
+        Matcher<Resource> containsChildrenInAnyOrder = ResourceMatchers.containsChildrenInAnyOrder("child0");
+        Matcher<Resource> hasChildren = ResourceMatchers.hasChildren("child0");
+        Matcher<Resource> path = ResourceMatchers.path("/content/resource0");
+        Matcher<Resource> name = ResourceMatchers.name("resource0");
+
+        assertNoMixedUpDescriptions(resource -> {
+            String index = resource.getName().substring("resource".length());
+            String actualValue = Integer.parseInt(index) % 2 == 1
+                    ? "property \"other\": expected value \"other0\" of type \"java.lang.String\" but was value \"other"
+                            + index + "\""
+                    : "property \"key\": expected value \"actual0\" of type \"java.lang.String\" but was value \"actual"
+                            + index + "\"";
+            String childName = "\"child" + index + "\"";
+            String mismatch = describeIfMismatch(props, resource) + describeIfMismatch(nameAndProps, resource);
+            String childrenMismatch = describeIfMismatch(containsChildren, resource)
+                    + describeIfMismatch(containsChildrenInAnyOrder, resource)
+                    + describeIfMismatch(hasChildren, resource);
+            String pathMismatch = describeIfMismatch(path, resource) + describeIfMismatch(name, resource);
+            if ("0".equals(index)) {
+                return mismatch.isEmpty() && childrenMismatch.isEmpty() && pathMismatch.isEmpty();
+            }
+            return mismatch.contains(actualValue)
+                    && childrenMismatch.contains(childName)
+                    && pathMismatch.contains("\"" + resource.getPath() + "\"");
+        });
+    }
+
+    @Test
+    void testSharedResourceIteratorMatcher() throws Exception {
+        Matcher<Iterator<Resource>> paths = ResourceIteratorMatchers.paths("/content/resource0");
+
+        assertNoMixedUpDescriptions(resource -> {
+            String mismatch = describeIfMismatch(paths, List.of(resource).iterator());
+            if ("/content/resource0".equals(resource.getPath())) {
+                return mismatch.isEmpty();
+            }
+            return mismatch.contains("\"" + resource.getPath() + "\"");
+        });
+    }
+
+    @Test
+    void testSharedResourceCollectionMatcher() throws Exception {
+        Matcher<Collection<Resource>> paths = ResourceCollectionMatchers.paths("/content/resource0");
+
+        assertNoMixedUpDescriptions(resource -> {
+            String mismatch = describeIfMismatch(paths, List.of(resource));
+            if ("/content/resource0".equals(resource.getPath())) {
+                return mismatch.isEmpty();
+            }
+            return mismatch.contains("\"" + resource.getPath() + "\"");
+        });
+    }
+
+    private static <T> String describeIfMismatch(Matcher<? super T> matcher, T item) {
+        if (matcher.matches(item)) {
+            return "";
+        }
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(item, description);
+        return description.toString();
+    }
+
+    private void assertNoMixedUpDescriptions(Check check) throws Exception {
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int offset = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        Resource resource = resources.get((i + offset) % RESOURCES);
+                        if (!check.isConsistent(resource)) {
+                            failures.add(resource.getPath());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of(), new ArrayList<>(failures));
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean isConsistent(Resource resource);
+    }
+}
@@ -18,19 +18,47 @@
  */
 package org.apache.sling.hamcrest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.collect.ImmutableMap;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceWrapper;
 import org.apache.sling.api.resource.SyntheticResource;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.hamcrest.matchers.ExpectedResourceTree;
+import org.apache.sling.hamcrest.matchers.PathPattern;
+import org.apache.sling.hamcrest.matchers.ResourceSnapshotMatcher;
+import org.apache.sling.hamcrest.matchers.ResourceTypeHierarchyCache;
 import org.apache.sling.testing.mock.sling.junit5.SlingContext;
 import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
+import org.hamcrest.StringDescription;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(SlingContextExtension.class)
 class ResourceMatchersTest {
@@ -40,6 +68,9 @@ class ResourceMatchersTest {
 
     private final SlingContext context = new SlingContext();
 
+    @TempDir
+    Path tempDir;
+
     @Test
     void testResourceType() {
         context.build()
@@ -83,6 +114,52 @@ class ResourceMatchersTest {
         assertThat(syntheticResource, Matchers.not(ResourceMatchers.resourceType("some/other/type")));
     }
 
+    @Test
+    void testResourceTypeOrDerivedWithCache() {
+        context.build()
+                .resource("/apps/my/base")
+                .resource("/apps/my/derived", PROPERTY_RESOURCE_SUPER_TYPE, "my/base")
+                .resource("/apps/my/special", PROPERTY_RESOURCE_SUPER_TYPE, "my/derived")
+                .resource("/content/1", ResourceResolver.PROPERTY_RESOURCE_TYPE, "my/special")
+                .resource("/content/2", ResourceResolver.PROPERTY_RESOURCE_TYPE, "my/special")
+                .resource("/content/3", ResourceResolver.PROPERTY_RESOURCE_TYPE, "my/derived")
+                .resource(
+                        "/content/4",
+                        ResourceResolver.PROPERTY_RESOURCE_TYPE,
+                        "my/other",
+                        PROPERTY_RESOURCE_SUPER_TYPE,
+                        "my/derived");
+
+        ResourceResolver resolver = context.resourceResolver();
+        ResourceTypeHierarchyCache cache = ResourceTypeHierarchyCache.forResolver(resolver);
+        assertSame(cache, ResourceTypeHierarchyCache.forResolver(resolver));
+
+        Matcher<Resource> base = ResourceMatchers.resourceTypeOrDerived("my/base", cache);
+        Matcher<Resource> derived = ResourceMatchers.resourceTypeOrDerived("/apps/my/derived", cache);
+        for (String path : new String[] {"/content/1", "/content/2", "/content/3", "/content/4"}) {
+            Resource resource = resolver.getResource(path);
+            assertThat(resource, base);
+            assertThat(resource, derived);
+            assertEquals(resource.isResourceType("my/base"), base.matches(resource));
+        }
+        assertThat(resolver.getResource("/content/1"), ResourceMatchers.resourceTypeOrDerived("my/special", cache));
+        assertThat(
+                resolver.getResource("/content/3"),
+                Matchers.not(ResourceMatchers.resourceTypeOrDerived("my/special", cache)));
+
+        // one chain for my/special, one for my/derived, used by all matchers
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+        assertTrue(cache.getHitCount() > 0);
+
+        ResourceTypeHierarchyCache small = new ResourceTypeHierarchyCache(1);
+        assertThat(resolver.getResource("/content/1"), ResourceMatchers.resourceTypeOrDerived("my/base", small));
+        assertThat(resolver.getResource("/content/3"), ResourceMatchers.resourceTypeOrDerived("my/base", small));
+        assertEquals(1, small.size());
+        assertEquals(1, small.getEvictionCount());
+        assertThrows(IllegalArgumentException.class, () -> new ResourceTypeHierarchyCache(0));
+    }
+
     @Test
     void testPath() {
         context.build().resource("/resource");
@@ -92,6 +169,81 @@ class ResourceMatchersTest {
         assertThat(resource, Matchers.not(ResourceMatchers.path("some/other/name")));
     }
 
+    @Test
+    void testPathMatching() {
+        Resource resource = context.create().resource("/content/site/en/page/jcr:content");
+
+        assertThat(resource, ResourceMatchers.pathMatching("/content/site/*/page/jcr:content"));
+        assertThat(resource, ResourceMatchers.pathMatching("/content/**/jcr:content"));
+        assertThat(resource, ResourceMatchers.pathMatching("**/jcr:content"));
+        assertThat(resource, ResourceMatchers.pathMatching("/content/site/e?/**"));
+        assertThat(resource, Matchers.not(ResourceMatchers.pathMatching("/content/*/jcr:content")));
+        assertThat(resource, Matchers.not(ResourceMatchers.pathMatching("**/jcr:content/**")));
+        // regular expression characters are literals in globs
+        assertThat(resource, Matchers.not(ResourceMatchers.pathMatching("/content/site/../page/jcr:content")));
+        assertThat(resource, ResourceMatchers.pathMatching(PathPattern.regex("/content/site/[a-z]{2}/.*")));
+        assertEquals(
+                "Resource with path matching \"/content/**\"",
+                StringDescription.toString(ResourceMatchers.pathMatching("/content/**")));
+    }
+
+    @Test
+    void testPathUnder() {
+        Resource resource = context.create().resource("/content/site/en/page");
+
+        assertThat(resource, ResourceMatchers.pathUnder("/content/dam", "/content/site/en"));
+        assertThat(resource, ResourceMatchers.pathUnder("/content/site/en/page/"));
+        assertThat(resource, ResourceMatchers.pathUnder("/"));
+        assertThat(resource, Matchers.not(ResourceMatchers.pathUnder("/content/site/e", "/content/site/en/page/x")));
+
+        List<String> roots = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            roots.add("/content/site/" + i);
+        }
+        PathPattern pattern = PathPattern.under(roots);
+        assertFalse(pattern.matches("/content/site/en/page"));
+        assertTrue(pattern.matches("/content/site/999/page"));
+        assertFalse(pattern.matches("/content/site/1000"));
+        assertFalse(pattern.matches("relative/path"));
+        assertThrows(IllegalArgumentException.class, () -> PathPattern.under("content"));
+    }
+
+    @Test
+    void testHierarchy() {
+        Resource site = context.create().resource("/content/site");
+        Resource page = context.create().resource("/content/site/page");
+        Resource root = context.resourceResolver().getResource("/");
+
+        assertThat(page, ResourceMatchers.hasParentPath("/content/site"));
+        assertThat(page, ResourceMatchers.hasParentPath("/content/site/"));
+        assertThat(page, ResourceMatchers.isChildOf(site));
+        assertThat(page, Matchers.not(ResourceMatchers.hasParentPath("/content")));
+        assertThat(page, Matchers.not(ResourceMatchers.hasParentPath("/content/sit")));
+        assertThat(site, Matchers.not(ResourceMatchers.isChildOf(site)));
+        assertThat(context.resourceResolver().getResource("/content"), ResourceMatchers.isChildOf(root));
+        assertThat(root, Matchers.not(ResourceMatchers.hasParentPath("/")));
+
+        assertThat(page, ResourceMatchers.isDescendantOf("/content"));
+        assertThat(page, ResourceMatchers.isDescendantOf("/content/site"));
+        assertThat(page, ResourceMatchers.isDescendantOf("/"));
+        assertThat(page, Matchers.not(ResourceMatchers.isDescendantOf("/content/site/page")));
+        assertThat(page, Matchers.not(ResourceMatchers.isDescendantOf("/content/si")));
+        assertThat(root, Matchers.not(ResourceMatchers.isDescendantOf("/")));
+
+        assertThat(root, ResourceMatchers.hasDepth(0));
+        assertThat(site, ResourceMatchers.hasDepth(2));
+        assertThat(page, ResourceMatchers.hasDepth(3));
+        assertThat(page, Matchers.not(ResourceMatchers.hasDepth(2)));
+
+        StringDescription description = new StringDescription();
+        ResourceMatchers.hasDepth(2).describeMismatch(page, description);
+        assertEquals(
+                "was Resource at depth 3 with path \"/content/site/page\" (resource: <" + page + ">)",
+                description.toString());
+        assertThrows(IllegalArgumentException.class, () -> ResourceMatchers.isDescendantOf("content"));
+        assertThrows(IllegalArgumentException.class, () -> ResourceMatchers.hasDepth(-1));
+    }
+
     @Test
     void testName() {
         context.build().resource("/resource");
@@ -166,12 +318,253 @@ class ResourceMatchersTest {
         assertThat(resource, Matchers.not(ResourceMatchers.props(expectedProperties)));
     }
 
+    @Test
+    void testPropsArrays() {
+        context.build()
+                .resource(
+                        "/resource",
+                        "longs",
+                        new long[] {1L, 2L, 3L},
+                        "boxedLongs",
+                        new Long[] {1L, 2L, 3L},
+                        "doubles",
+                        new double[] {1.5d, Double.NaN},
+                        "booleans",
+                        new boolean[] {true, false},
+                        "strings",
+                        new String[] {"a", null});
+
+        Resource resource = context.resourceResolver().getResource("/resource");
+        assertThat(resource, ResourceMatchers.props("longs", new long[] {1L, 2L, 3L}));
+        assertThat(resource, ResourceMatchers.props("longs", new Long[] {1L, 2L, 3L}));
+        assertThat(resource, ResourceMatchers.props("boxedLongs", new long[] {1L, 2L, 3L}));
+        assertThat(resource, ResourceMatchers.props("doubles", new Double[] {1.5d, Double.NaN}));
+        assertThat(resource, ResourceMatchers.props("booleans", new boolean[] {true, false}));
+        assertThat(resource, ResourceMatchers.props("strings", new Object[] {"a", null}));
+
+        assertThat(resource, Matchers.not(ResourceMatchers.props("longs", new long[] {1L, 2L, 4L})));
+        assertThat(resource, Matchers.not(ResourceMatchers.props("longs", new int[] {1, 2, 3})));
+        assertThat(resource, Matchers.not(ResourceMatchers.props("longs", new Integer[] {1, 2, 3})));
+        assertThat(resource, Matchers.not(ResourceMatchers.props("boxedLongs", new long[] {1L, 2L})));
+        assertThat(resource, Matchers.not(ResourceMatchers.props("doubles", new double[] {1.5d, 0d})));
+        assertThat(resource, Matchers.not(ResourceMatchers.props("strings", new String[] {"a", "b"})));
+
+        AssertionError error = assertThrows(
+                AssertionError.class, () -> assertThat(resource, ResourceMatchers.props("longs", new long[] {1L})));
+        assertThat(error.getMessage(), Matchers.containsString("<longs=[1,2,3]>"));
+        assertThat(error.getMessage(), Matchers.containsString("<doubles=[1.5,NaN]>"));
+    }
+
+    @Test
+    void testPropsMatching() {
+        Resource resource = context.create()
+                .resource("/resource", "jcr:title", "Home", "sling:vanityPath", "/home", "count", 42);
+
+        assertThat(
+                resource,
+                ResourceMatchers.propsMatching(Map.of(
+                        "jcr:title", Matchers.startsWith("Ho"),
+                        "sling:vanityPath", Matchers.containsString("home"),
+                        "missing", Matchers.nullValue())));
+        assertThat(resource, ResourceMatchers.propsMatching(Integer.class, Map.of("count", Matchers.greaterThan(41))));
+        assertThat(resource, ResourceMatchers.propsMatching(String.class, Map.of("count", Matchers.equalTo("42"))));
+
+        Map<String, Matcher<?>> matchers = new LinkedHashMap<>();
+        matchers.put("jcr:title", Matchers.startsWith("Ho"));
+        matchers.put("sling:vanityPath", Matchers.startsWith("/x"));
+        matchers.put("count", Matchers.equalTo(43));
+        Matcher<Resource> matcher = ResourceMatchers.propsMatching(matchers);
+        assertFalse(matcher.matches(resource));
+        assertEquals(
+                "Resource with properties [\"jcr:title\" a string starting with \"Ho\", \"sling:vanityPath\" a string"
+                        + " starting with \"/x\", \"count\" <43>]",
+                StringDescription.toString(matcher));
+
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(resource, description);
+        assertEquals(
+                "was Resource <" + resource + ">" + System.lineSeparator()
+                        + "     Mismatch in property \"sling:vanityPath\": was \"/home\"" + System.lineSeparator()
+                        + "     Mismatch in property \"count\": was <42>",
+                description.toString());
+        assertThrows(IllegalArgumentException.class, () -> ResourceMatchers.propsMatching(Map.of()));
+    }
+
+    @Test
+    void testPropsMatchingMixedTypes() {
+        Calendar lastModified = Calendar.getInstance();
+        lastModified.setTimeInMillis(1_000_000L);
+        Resource resource = context.create()
+                .resource("/resource", "jcr:lastModified", lastModified, "sling:vanityPath", "/home", "count", 42);
+
+        AtomicInteger valueMapCalls = new AtomicInteger();
+        Resource counting = new ResourceWrapper(resource) {
+            @Override
+            public ValueMap getValueMap() {
+                valueMapCalls.incrementAndGet();
+                return super.getValueMap();
+            }
+        };
+        assertThat(
+                counting,
+                ResourceMatchers.propsMatching(
+                        ResourceMatchers.property("jcr:lastModified", Calendar.class, Matchers.equalTo(lastModified)),
+                        ResourceMatchers.property("count", String.class, Matchers.equalTo("42")),
+                        ResourceMatchers.property("sling:vanityPath", Matchers.startsWith("/"))));
+        assertEquals(1, valueMapCalls.get());
+
+        Matcher<Resource> matcher = ResourceMatchers.propsMatching(
+                ResourceMatchers.property("count", Integer.class, Matchers.equalTo(43)),
+                ResourceMatchers.property("sling:vanityPath", Matchers.startsWith("/x")));
+        assertEquals(
+                "Resource with properties [\"count\" as Integer <43>,"
+                        + " \"sling:vanityPath\" a string starting with \"/x\"]",
+                StringDescription.toString(matcher));
+        assertFalse(matcher.matches(resource));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(resource, description);
+        assertEquals(
+                "was Resource <" + resource + ">" + System.lineSeparator()
+                        + "     Mismatch in property \"count\": was <42>" + System.lineSeparator()
+                        + "     Mismatch in property \"sling:vanityPath\": was \"/home\"",
+                description.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> ResourceMatchers.propsMatching());
+        assertThrows(
+                IllegalArgumentException.class, () -> ResourceMatchers.property("count", null, Matchers.anything()));
+        assertThrows(IllegalArgumentException.class, () -> ResourceMatchers.property("", Matchers.anything()));
+    }
+
+    @Test
+    void testPropsExactly() {
+        Resource resource = context.create()
+                .resource(
+                        "/resource",
+                        "jcr:primaryType",
+                        "nt:unstructured",
+                        "jcr:created",
+                        "yesterday",
+                        "title",
+                        "Home",
+                        "tags",
+                        new String[] {"a", "b"});
+
+        assertThat(
+                resource,
+                ResourceMatchers.propsExactly(
+                        Map.of("title", "Home", "tags", new String[] {"a", "b"}), ResourceMatchers.ignoring("jcr:*")));
+        assertThat(
+                resource,
+                ResourceMatchers.propsExactly(
+                        Map.of("title", "Home", "tags", new String[] {"a", "b"}, "jcr:created", "today"),
+                        ResourceMatchers.ignoring("jcr:primaryType", "jcr:created")));
+        assertThat(resource, Matchers.not(ResourceMatchers.propsExactly(Map.of("title", "Home"))));
+
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("title", "Other");
+        expected.put("description", "Text");
+        Matcher<Resource> matcher = ResourceMatchers.propsExactly(expected, ResourceMatchers.ignoring("jcr:*"));
+        assertFalse(matcher.matches(resource));
+
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(resource, description);
+        assertEquals(
+                "was Resource with 3 differing properties (resource: <" + resource + ">)" + System.lineSeparator()
+                        + "     Missing property \"description\": expected value \"Text\" of type \"java.lang.String\""
+                        + System.lineSeparator()
+                        + "     Unexpected property \"tags\": value [\"a\", \"b\"] of type \"[Ljava.lang.String;\""
+                        + System.lineSeparator()
+                        + "     Mismatch in property \"title\": expected value \"Other\" of type \"java.lang.String\""
+                        + " but was value \"Home\" of type \"java.lang.String\"",
+                description.toString());
+
+        description = new StringDescription();
+        ResourceMatchers.propsExactly(
+                        Map.of("title", "Other", "tags", new String[] {"a", "b"}), ResourceMatchers.ignoring("jcr:*"))
+                .describeMismatch(resource, description);
+        assertThat(
+                description.toString(),
+                Matchers.startsWith("was Resource with 1 differing property (resource: <" + resource + ">)"));
+
+        assertThrows(IllegalArgumentException.class, () -> ResourceMatchers.ignoring("jcr:*", null));
+        assertThrows(IllegalArgumentException.class, () -> ResourceMatchers.ignoring(""));
+    }
+
     @Test
     void testHasChildren() {
         context.build().resource("/parent").resource("child1").resource("/parent/child2");
 
         Resource resource = context.resourceResolver().getResource("/parent");
         assertThat(resource, ResourceMatchers.hasChildren("child1"));
+        assertThat(resource, ResourceMatchers.hasChildren("child2", "child1"));
+        assertThat(resource, ResourceMatchers.hasChildren("child1", "child1"));
+        assertThat(resource, Matchers.not(ResourceMatchers.hasChildren("child1", "child3")));
+    }
+
+    @Test
+    void testHasChildCount() {
+        context.build().resource("/parent").resource("child1").resource("/parent/child2");
+        context.build().resource("/empty");
+
+        Resource resource = context.resourceResolver().getResource("/parent");
+        assertThat(resource, ResourceMatchers.hasChildCount(2));
+        assertThat(resource, Matchers.not(ResourceMatchers.hasChildCount(1)));
+        assertThat(resource, Matchers.not(ResourceMatchers.hasChildCount(3)));
+        assertThat(context.resourceResolver().getResource("/empty"), ResourceMatchers.hasChildCount(0));
+
+        Matcher<Resource> matcher = ResourceMatchers.hasChildCount(1);
+        assertEquals("Resource with 1 child", StringDescription.toString(matcher));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(resource, description);
+        assertEquals("was Resource with more than 1 child (resource: <" + resource + ">)", description.toString());
+
+        Resource single = context.create().resource("/single/child").getParent();
+        description = new StringDescription();
+        ResourceMatchers.hasChildCount(2).describeMismatch(single, description);
+        assertEquals("was Resource with 1 child (resource: <" + single + ">)", description.toString());
+    }
+
+    @Test
+    void testHasAtMostChildren() {
+        context.build().resource("/parent");
+        for (int i = 0; i < 10; i++) {
+            context.build().resource("/parent/child" + i);
+        }
+
+        AtomicInteger iteratedChildren = new AtomicInteger();
+        Resource resource = new ResourceWrapper(context.resourceResolver().getResource("/parent")) {
+            @Override
+            public Iterator<Resource> listChildren() {
+                Iterator<Resource> children = super.listChildren();
+                return new Iterator<Resource>() {
+                    @Override
+                    public boolean hasNext() {
+                        return children.hasNext();
+                    }
+
+                    @Override
+                    public Resource next() {
+                        iteratedChildren.incrementAndGet();
+                        return children.next();
+                    }
+                };
+            }
+        };
+        assertThat(resource, ResourceMatchers.hasAtMostChildren(10));
+
+        iteratedChildren.set(0);
+        AssertionError error =
+                assertThrows(AssertionError.class, () -> assertThat(resource, ResourceMatchers.hasAtMostChildren(3)));
+        assertEquals(4, iteratedChildren.get());
+        assertThat(error.getMessage(), Matchers.containsString("was Resource with more than 3 children"));
+    }
+
+    @Test
+    void testHasNoChildren() {
+        context.build().resource("/parent").resource("child1");
+
+        assertThat(context.resourceResolver().getResource("/parent/child1"), ResourceMatchers.hasNoChildren());
+        assertThat(context.resourceResolver().getResource("/parent"), Matchers.not(ResourceMatchers.hasNoChildren()));
     }
 
     @Test
@@ -228,6 +621,9 @@ class ResourceMatchersTest {
         assertThat(resource, ResourceMatchers.containsChildrenInAnyOrder("child2", "child1"));
         assertThat(resource, ResourceMatchers.containsChildrenInAnyOrder("child1", "child2"));
         assertThat(resource, Matchers.not(ResourceMatchers.containsChildren("child2", "child3", "child1")));
+        assertThat(resource, Matchers.not(ResourceMatchers.containsChildrenInAnyOrder("child2", "child3", "child1")));
+        assertThat(resource, Matchers.not(ResourceMatchers.containsChildrenInAnyOrder("child2")));
+        assertThat(resource, Matchers.not(ResourceMatchers.containsChildrenInAnyOrder("child2", "child2")));
     }
 
     @Test
@@ -238,5 +634,532 @@ class ResourceMatchersTest {
         assertThat(resource, ResourceMatchers.containsChildren("child1", "child2"));
         assertThat(resource, Matchers.not(ResourceMatchers.containsChildren("child2", "child1")));
         assertThat(resource, Matchers.not(ResourceMatchers.containsChildren("child1", "child2", "child3")));
+        assertThat(resource, Matchers.not(ResourceMatchers.containsChildren("child1")));
+    }
+
+    @Test
+    void testPropsMismatchReadsValueMapOnce() {
+        context.build().resource("/resource", "key1", "value1", "key2", "value2");
+
+        AtomicInteger valueMapCalls = new AtomicInteger();
+        Resource resource = new ResourceWrapper(context.resourceResolver().getResource("/resource")) {
+            @Override
+            public ValueMap getValueMap() {
+                valueMapCalls.incrementAndGet();
+                return super.getValueMap();
+            }
+        };
+
+        AssertionError error = assertThrows(
+                AssertionError.class, () -> assertThat(resource, ResourceMatchers.props("key1", "value1", "key2", 2)));
+        assertEquals(1, valueMapCalls.get());
+        assertThat(error.getMessage(), Matchers.containsString("First mismatch in property \"key2\""));
+    }
+
+    @Test
+    void testContainsChildrenListsChildrenOnce() {
+        context.build().resource("/parent").resource("child1").resource("/parent/child2");
+
+        AtomicInteger childrenCalls = new AtomicInteger();
+        Resource resource = new ResourceWrapper(context.resourceResolver().getResource("/parent")) {
+            @Override
+            public Iterable<Resource> getChildren() {
+                childrenCalls.incrementAndGet();
+                return super.getChildren();
+            }
+        };
+
+        assertThat(resource, ResourceMatchers.containsChildrenInAnyOrder("child2", "child1"));
+        assertEquals(1, childrenCalls.get());
+
+        // a mismatch is described without listing the children again
+        AssertionError error = assertThrows(
+                AssertionError.class,
+                () -> assertThat(resource, ResourceMatchers.containsChildrenInAnyOrder("child1", "child3")));
+        assertEquals(2, childrenCalls.get());
+        assertThat(error.getMessage(), Matchers.containsString("not matched: "));
+
+        Matcher<Resource> ordered = ResourceMatchers.containsChildren("child2", "child1");
+        assertFalse(ordered.matches(resource));
+        StringDescription description = new StringDescription();
+        ordered.describeMismatch(resource, description);
+        assertEquals(3, childrenCalls.get());
+        assertThat(description.toString(), Matchers.startsWith("item 0: was Resource with name \"child1\""));
+
+        Matcher<Resource> missing = ResourceMatchers.hasChildren("child3", "child1", "child4");
+        assertFalse(missing.matches(resource));
+        description = new StringDescription();
+        missing.describeMismatch(resource, description);
+        assertEquals(4, childrenCalls.get());
+        assertEquals(
+                "no item matches: Resource with name \"child3\", Resource with name \"child4\""
+                        + " in children of \"/parent\"",
+                description.toString());
+    }
+
+    @Test
+    void testResource() {
+        context.build()
+                .resource(
+                        "/parent/resource",
+                        ResourceResolver.PROPERTY_RESOURCE_TYPE,
+                        "some/type",
+                        PROPERTY_RESOURCE_SUPER_TYPE,
+                        "some/base/type",
+                        "key1",
+                        "value1",
+                        "key2",
+                        new String[] {"item1"});
+
+        Resource resource = context.resourceResolver().getResource("/parent/resource");
+        assertThat(resource, ResourceMatchers.resource());
+        assertThat(
+                resource,
+                ResourceMatchers.resource()
+                        .name("resource")
+                        .path("/parent/resource")
+                        .resourceType("some/type")
+                        .props(Map.of("key1", "value1", "key2", new String[] {"item1"})));
+        assertThat(resource, ResourceMatchers.resource().resourceTypeOrDerived("some/base/type"));
+        assertThat(resource, ResourceMatchers.resource().name("resource").props("key1", "value1"));
+
+        assertThat(resource, Matchers.not(ResourceMatchers.resource().name("other")));
+        assertThat(resource, Matchers.not(ResourceMatchers.resource().path("/parent/other")));
+        assertThat(resource, Matchers.not(ResourceMatchers.resource().resourceType("some/base/type")));
+        assertThat(resource, Matchers.not(ResourceMatchers.resource().props(Map.of("key1", "value2"))));
+    }
+
+    @Test
+    void testResourceMismatch() {
+        context.build().resource("/resource", "key1", "value1");
+
+        AtomicInteger valueMapCalls = new AtomicInteger();
+        Resource resource = new ResourceWrapper(context.resourceResolver().getResource("/resource")) {
+            @Override
+            public ValueMap getValueMap() {
+                valueMapCalls.incrementAndGet();
+                return super.getValueMap();
+            }
+        };
+
+        // properties are not read if a cheaper check already fails
+        Matcher<Resource> matcher =
+                ResourceMatchers.resource().name("other").path("/resource").props(Map.of("key1", "value2"));
+        assertFalse(matcher.matches(resource));
+        assertEquals(0, valueMapCalls.get());
+
+        // the mismatch reports all failing checks, reading each value only once
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(resource, description);
+        assertEquals(1, valueMapCalls.get());
+        assertEquals(
+                "was Resource with name \"resource\", property \"key1\" value \"value1\" of type \"java.lang.String\""
+                        + " (resource: <" + resource + ">)",
+                description.toString());
+        assertEquals(
+                "Resource with name \"other\" and path \"/resource\" and properties [<key1=value2>]",
+                StringDescription.toString(matcher));
+    }
+
+    @Test
+    void testHasTree() {
+        context.build()
+                .resource("/page", "sling:resourceType", "my/page")
+                .resource("jcr:content", "jcr:title", "Home", "tags", new String[] {"a", "b"})
+                .resource("par")
+                .resource("/page/jcr:content/image");
+
+        Resource resource = context.resourceResolver().getResource("/page");
+        assertThat(
+                resource,
+                ResourceMatchers.hasTree(ExpectedResourceTree.node()
+                        .resourceType("my/page")
+                        .exactChildren()
+                        .child(
+                                "jcr:content",
+                                ExpectedResourceTree.node()
+                                        .props("jcr:title", "Home", "tags", new String[] {"a", "b"})
+                                        .child("par")
+                                        .child("image"))));
+        assertThat(resource, ResourceMatchers.hasTree(ExpectedResourceTree.node()));
+
+        ExpectedResourceTree cycle = ExpectedResourceTree.node();
+        cycle.child("child", ExpectedResourceTree.node().child("again", cycle));
+        assertThrows(IllegalArgumentException.class, () -> ResourceMatchers.hasTree(cycle));
+    }
+
+    @Test
+    void testHasTreeMismatch() {
+        context.build()
+                .resource("/page", "sling:resourceType", "my/page")
+                .resource("jcr:content", "jcr:title", "Home")
+                .resource("par")
+                .resource("/page/other");
+
+        Resource resource = context.resourceResolver().getResource("/page");
+        Matcher<Resource> matcher = ResourceMatchers.hasTree(ExpectedResourceTree.node()
+                .resourceType("my/other")
+                .exactChildren()
+                .child(
+                        "jcr:content",
+                        ExpectedResourceTree.node()
+                                .props("jcr:title", "Start")
+                                .child("par", ExpectedResourceTree.node().child("text"))
+                                .child("image")));
+        assertFalse(matcher.matches(resource));
+
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(resource, description);
+        assertEquals(
+                "was Resource tree with <5> mismatches:"
+                        + System.lineSeparator() + "  /page: resource type \"my/page\" instead of \"my/other\""
+                        + System.lineSeparator() + "  /page/other: unexpected"
+                        + System.lineSeparator() + "  /page/jcr:content: property \"jcr:title\""
+                        + " was value \"Home\" of type \"java.lang.String\""
+                        + " instead of value \"Start\" of type \"java.lang.String\""
+                        + System.lineSeparator() + "  /page/jcr:content/par/text: missing"
+                        + System.lineSeparator() + "  /page/jcr:content/image: missing",
+                description.toString());
+        assertEquals("Resource tree with <5> expected resources", StringDescription.toString(matcher));
+    }
+
+    @Test
+    void testHasTreeParallel() {
+        ExpectedResourceTree expected = ExpectedResourceTree.node();
+        ExpectedResourceTree[] branches = new ExpectedResourceTree[3];
+        context.build().resource("/root");
+        for (int i = 0; i < branches.length; i++) {
+            branches[i] = ExpectedResourceTree.node();
+            for (int j = 0; j < 100; j++) {
+                context.build().resource("/root/branch" + i + "/child" + j, "index", j);
+                branches[i].child("child" + j, ExpectedResourceTree.node().props("index", j));
+            }
+            expected.child("branch" + i, branches[i]);
+        }
+        // a wrong value and a missing child in different branches
+        branches[2].child("child7", ExpectedResourceTree.node().props("index", 8));
+        branches[0].child("missing");
+
+        Resource resource = context.resourceResolver().getResource("/root");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Matcher<Resource> matcher = ResourceMatchers.hasTree(expected, pool);
+            assertFalse(matcher.matches(resource));
+            StringDescription description = new StringDescription();
+            matcher.describeMismatch(resource, description);
+            assertEquals(
+                    "was Resource tree with <2> mismatches:"
+                            + System.lineSeparator() + "  /root/branch0/missing: missing"
+                            + System.lineSeparator() + "  /root/branch2/child7: property \"index\""
+                            + " was value <7> of type \"java.lang.Integer\""
+                            + " instead of value <8> of type \"java.lang.Integer\"",
+                    description.toString());
+
+            // matchers are not affected by later changes of the expected tree
+            branches[2].child("child7", ExpectedResourceTree.node().props("index", 7));
+            assertFalse(matcher.matches(resource));
+            description = new StringDescription();
+            matcher.describeMismatch(resource, description);
+            assertTrue(description.toString().contains("/root/branch2/child7"));
+
+            ExpectedResourceTree fixed = ExpectedResourceTree.node();
+            for (int i = 0; i < branches.length; i++) {
+                ExpectedResourceTree branch = ExpectedResourceTree.node();
+                for (int j = 0; j < 100; j++) {
+                    branch.child("child" + j, ExpectedResourceTree.node().props("index", j));
+                }
+                fixed.child("branch" + i, branch);
+            }
+            assertThat(resource, ResourceMatchers.hasTree(fixed, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testHasTreeSequentialInForkJoinPool() throws Exception {
+        ExpectedResourceTree expected = ExpectedResourceTree.node();
+        context.build().resource("/root");
+        for (int i = 0; i < 3; i++) {
+            ExpectedResourceTree branch = ExpectedResourceTree.node();
+            for (int j = 0; j < 100; j++) {
+                context.build().resource("/root/branch" + i + "/child" + j);
+                branch.child("child" + j);
+            }
+            expected.child("branch" + i, branch);
+        }
+
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        class ThreadRecordingResource extends ResourceWrapper {
+            ThreadRecordingResource(Resource resource) {
+                super(resource);
+            }
+
+            @Override
+            public Resource getChild(String relPath) {
+                threads.add(Thread.currentThread());
+                if (relPath.startsWith("branch")) {
+                    // gives other workers time to steal forked branches
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                Resource child = super.getChild(relPath);
+                return child != null ? new ThreadRecordingResource(child) : null;
+            }
+        }
+        Resource resource = new ThreadRecordingResource(context.resourceResolver().getResource("/root"));
+
+        // a matcher without pool never forks, even if it is evaluated by a fork join worker
+        Matcher<Resource> matcher = ResourceMatchers.hasTree(expected);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertTrue(pool.submit(() -> matcher.matches(resource)).get());
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, threads.size());
+    }
+
+    @Test
+    void testMatchesSnapshot() throws IOException {
+        context.build()
+                .resource("/page", "sling:resourceType", "my/page")
+                .resource("jcr:content", "jcr:title", "Multi\nline", "tags", new String[] {"a,b", "c"}, "count", 3L)
+                .resource("par")
+                .resource("/page/jcr:content/image");
+        Resource resource = context.resourceResolver().getResource("/page");
+
+        String snapshot = "/\n"
+                + "/ @sling:resourceType=String:my/page\n"
+                + "/jcr:content\n"
+                + "/jcr:content @count=Long:3\n"
+                + "/jcr:content @jcr:title=String:Multi\\nline\n"
+                + "/jcr:content @tags=String[]:[a\\,b,c]\n"
+                + "/jcr:content/par\n"
+                + "/jcr:content/image\n";
+        assertEquals(snapshot, ResourceSnapshotMatcher.serialize(resource));
+
+        Path goldenFile = tempDir.resolve("page.txt");
+        Files.write(goldenFile, snapshot.getBytes(StandardCharsets.UTF_8));
+        assertThat(resource, ResourceMatchers.matchesSnapshot(goldenFile));
+
+        // windows line endings and a missing final line break are tolerated
+        Files.write(goldenFile, snapshot.trim().replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8));
+        assertThat(resource, ResourceMatchers.matchesSnapshot(goldenFile));
+
+        Files.write(goldenFile, snapshot.replace("image", "text").getBytes(StandardCharsets.UTF_8));
+        assertThat(resource, Matchers.not(ResourceMatchers.matchesSnapshot(goldenFile)));
+        Files.write(goldenFile, snapshot.concat("/other\n").getBytes(StandardCharsets.UTF_8));
+        assertThat(resource, Matchers.not(ResourceMatchers.matchesSnapshot(goldenFile)));
+    }
+
+    @Test
+    void testMatchesSnapshotMismatch() throws IOException {
+        context.build()
+                .resource("/page", "sling:resourceType", "my/page")
+                .resource("jcr:content", "jcr:title", "Home")
+                .resource("/page/jcr:content/par");
+        Resource resource = context.resourceResolver().getResource("/page");
+
+        Path goldenFile = tempDir.resolve("snapshots/page.txt");
+        Matcher<Resource> matcher = ResourceMatchers.matchesSnapshot(goldenFile);
+        assertFalse(matcher.matches(resource));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(resource, description);
+        assertEquals(
+                "golden file <" + goldenFile + "> does not exist, run with -D" + ResourceSnapshotMatcher.UPDATE_PROPERTY
+                        + "=true to create it",
+                description.toString());
+
+        // update mode creates the golden file
+        assertThat(resource, new ResourceSnapshotMatcher(goldenFile, true));
+        assertThat(resource, matcher);
+
+        Files.write(
+                goldenFile,
+                ("/\n"
+                                + "/ @sling:resourceType=String:my/page\n"
+                                + "/jcr:content\n"
+                                + "/jcr:content @jcr:title=String:Start\n"
+                                + "/jcr:content/image\n"
+                                + "/jcr:content/par\n")
+                        .getBytes(StandardCharsets.UTF_8));
+        assertFalse(matcher.matches(resource));
+        description = new StringDescription();
+        matcher.describeMismatch(resource, description);
+        assertEquals(
+                "differed from snapshot in <3> lines:"
+                        + System.lineSeparator() + "  -4: /jcr:content @jcr:title=String:Start"
+                        + System.lineSeparator() + "  -5: /jcr:content/image"
+                        + System.lineSeparator() + "  +4: /jcr:content @jcr:title=String:Home",
+                description.toString());
+
+        // update mode rewrites the golden file in place
+        assertThat(resource, new ResourceSnapshotMatcher(goldenFile, true));
+        assertEquals(
+                ResourceSnapshotMatcher.serialize(resource),
+                new String(Files.readAllBytes(goldenFile), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testSameTreeAs() {
+        context.build()
+                .resource("/reference", "sling:resourceType", "my/page")
+                .resource("jcr:content", "jcr:title", "Home", "tags", new String[] {"a", "b"}, "count", 3L)
+                .resource("par")
+                .resource("/reference/jcr:content/image");
+        // same content, with another order of the properties and children
+        context.build()
+                .resource("/copy", "sling:resourceType", "my/page")
+                .resource("jcr:content", "count", 3L, "tags", new String[] {"a", "b"}, "jcr:title", "Home")
+                .resource("image")
+                .resource("/copy/jcr:content/par");
+
+        Resource reference = context.resourceResolver().getResource("/reference");
+        assertThat(context.resourceResolver().getResource("/copy"), ResourceMatchers.sameTreeAs(reference));
+        assertThat(reference, ResourceMatchers.sameTreeAs(reference));
+        assertEquals(
+                "Resource tree same as \"/reference\"",
+                StringDescription.toString(ResourceMatchers.sameTreeAs(reference)));
+    }
+
+    @Test
+    void testSameTreeAsDistinguishesValueTypes() {
+        // values which are not equal, but have equal hash codes
+        Object[][] pairs = {
+            {5, 5L},
+            {0L, 0x100000001L},
+            {new int[] {5}, new long[] {5}},
+            {new long[] {0L}, new Long[] {0x100000001L}},
+            {1.0d, 1.0f},
+            {new Object[] {"Aa"}, new Object[] {"BB"}},
+            {List.of("Aa"), List.of("BB")}
+        };
+        for (int i = 0; i < pairs.length; i++) {
+            Resource expected = context.create().resource("/expected" + i + "/child", "value", pairs[i][0]);
+            Resource actual = context.create().resource("/actual" + i + "/child", "value", pairs[i][1]);
+            assertThat(actual.getParent(), Matchers.not(ResourceMatchers.sameTreeAs(expected.getParent())));
+            assertThat(actual, Matchers.not(ResourceMatchers.sameTreeAs(expected)));
+        }
+
+        // equal values of different array types
+        Resource expected = context.create().resource("/expected/child", "value", new long[] {1L, 2L});
+        Resource actual = context.create().resource("/actual/child", "value", new Long[] {1L, 2L});
+        assertThat(actual.getParent(), ResourceMatchers.sameTreeAs(expected.getParent()));
+    }
+
+    @Test
+    void testSameTreeAsMismatch() {
+        context.build()
+                .resource("/reference", "sling:resourceType", "my/page")
+                .resource("jcr:content", "jcr:title", "Home")
+                .resource("par", "text", "Hello")
+                .resource("/reference/jcr:content/image")
+                .resource("/reference/other");
+        context.build()
+                .resource("/copy", "sling:resourceType", "my/page")
+                .resource("jcr:content", "jcr:title", "Start", "extra", "value")
+                .resource("par", "text", "Hello")
+                .resource("/copy/jcr:content/text")
+                .resource("/copy/other");
+
+        AtomicInteger valueMapCalls = new AtomicInteger();
+        Resource reference = context.resourceResolver().getResource("/reference");
+        Resource copy = new ResourceWrapper(context.resourceResolver().getResource("/copy")) {
+            @Override
+            public ValueMap getValueMap() {
+                valueMapCalls.incrementAndGet();
+                return super.getValueMap();
+            }
+        };
+        Matcher<Resource> matcher = ResourceMatchers.sameTreeAs(reference);
+        assertFalse(matcher.matches(copy));
+        // the identical root is compared in detail, but not again for describing the mismatch
+        assertEquals(2, valueMapCalls.get());
+
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(copy, description);
+        assertEquals(2, valueMapCalls.get());
+        assertEquals(
+                "was Resource tree with <4> differences:"
+                        + System.lineSeparator() + "  /jcr:content: property \"jcr:title\""
+                        + " was value \"Start\" of type \"java.lang.String\""
+                        + " instead of value \"Home\" of type \"java.lang.String\""
+                        + System.lineSeparator() + "  /jcr:content: unexpected property \"extra\""
+                        + " with value \"value\" of type \"java.lang.String\""
+                        + System.lineSeparator() + "  /jcr:content/image: missing"
+                        + System.lineSeparator() + "  /jcr:content/text: unexpected",
+                description.toString());
+    }
+
+    @Test
+    void testBinaryProperty() throws IOException {
+        // spans several chunks
+        byte[] content = new byte[200_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        context.build().resource("/file", "jcr:data", content);
+        Resource resource = context.resourceResolver().getResource("/file");
+
+        assertThat(resource, ResourceMatchers.binaryProperty("jcr:data", content.clone()));
+        Path file = tempDir.resolve("file.bin");
+        Files.write(file, content);
+        assertThat(resource, ResourceMatchers.binaryProperty("jcr:data", file));
+
+        byte[] different = content.clone();
+        different[150_000]++;
+        assertMismatch(
+                resource,
+                ResourceMatchers.binaryProperty("jcr:data", different),
+                "was Resource with binary property \"jcr:data\" differing at byte offset 150000");
+        assertMismatch(
+                resource,
+                ResourceMatchers.binaryProperty("jcr:data", Arrays.copyOf(content, 300_000)),
+                "was Resource with binary property \"jcr:data\" ending after 200000 bytes");
+        Files.write(file, Arrays.copyOf(content, 65_536));
+        assertMismatch(
+                resource,
+                ResourceMatchers.binaryProperty("jcr:data", file),
+                "was Resource with binary property \"jcr:data\" longer than the expected 65536 bytes");
+        assertMismatch(
+                resource,
+                ResourceMatchers.binaryProperty("other", content),
+                "was Resource with binary property \"other\" missing");
+
+        assertEquals(
+                "Resource with binary property \"jcr:data\" with <200000> bytes of content",
+                StringDescription.toString(ResourceMatchers.binaryProperty("jcr:data", content)));
+    }
+
+    @Test
+    void testBinaryPropertyWithSha256() {
+        context.build().resource("/file", "jcr:data", "abc".getBytes(StandardCharsets.UTF_8));
+        Resource resource = context.resourceResolver().getResource("/file");
+
+        String sha256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+        assertThat(resource, ResourceMatchers.binaryPropertyWithSha256("jcr:data", sha256));
+        assertThat(resource, ResourceMatchers.binaryPropertyWithSha256("jcr:data", sha256.toUpperCase()));
+
+        String other = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+        assertMismatch(
+                resource,
+                ResourceMatchers.binaryPropertyWithSha256("jcr:data", other),
+                "was Resource with binary property \"jcr:data\" with SHA-256 " + sha256);
+        assertEquals(
+                "Resource with binary property \"jcr:data\" with SHA-256 " + other,
+                StringDescription.toString(ResourceMatchers.binaryPropertyWithSha256("jcr:data", other)));
+        assertThrows(
+                IllegalArgumentException.class, () -> ResourceMatchers.binaryPropertyWithSha256("jcr:data", "abc"));
+    }
+
+    private static void assertMismatch(Resource resource, Matcher<Resource> matcher, String expectedDescription) {
+        assertFalse(matcher.matches(resource));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(resource, description);
+        assertEquals(expectedDescription + " (resource: <" + resource + ">)", description.toString());
     }
 }
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.testing.mock.sling.junit5.SlingContext;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.hamcrest.Matcher;
+import org.hamcrest.Matchers;
+import org.hamcrest.StringDescription;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SlingContextExtension.class)
+class ResourcePerformanceMatchersTest {
+
+    private final SlingContext context = new SlingContext();
+
+    private volatile Object sink;
+
+    @Test
+    void testRunsWithin() {
+        context.build().resource("/parent", "key", "value").resource("child");
+        Resource resource = context.resourceResolver().getResource("/parent");
+
+        AtomicInteger runs = new AtomicInteger();
+        assertThat(
+                () -> {
+                    runs.incrementAndGet();
+                    resource.getChild("child").getValueMap();
+                },
+                ResourcePerformanceMatchers.runsWithin(
+                        10, 50, ResourcePerformanceMatchers.p99(1, TimeUnit.SECONDS)));
+        assertEquals(60, runs.get());
+
+        assertEquals(
+                "operation running with p99 within 5 ms and p99.9 within 10 ms over 1000 runs",
+                StringDescription.toString(ResourcePerformanceMatchers.runsWithin(
+                        ResourcePerformanceMatchers.p99(5, TimeUnit.MILLISECONDS),
+                        ResourcePerformanceMatchers.p999(10, TimeUnit.MILLISECONDS))));
+    }
+
+    @Test
+    void testRunsWithinMismatch() {
+        AtomicInteger runs = new AtomicInteger();
+        Runnable operation = () -> {
+            runs.incrementAndGet();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        };
+        Matcher<Runnable> matcher = ResourcePerformanceMatchers.runsWithin(
+                0,
+                20,
+                ResourcePerformanceMatchers.p50(1, TimeUnit.SECONDS),
+                ResourcePerformanceMatchers.percentile(75, 100, TimeUnit.MICROSECONDS));
+        assertFalse(matcher.matches(operation));
+
+        // the mismatch is described from the measurement made while matching
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(operation, description);
+        assertEquals(20, runs.get());
+        String text = description.toString();
+        assertTrue(
+                text.matches("p75 was .* \\(min=.*, p50=.*, p75=.*, p90=.*, p95=.*, p99=.*, p99\\.9=.*,"
+                        + " max=.*, runs=20\\)"),
+                text);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ResourcePerformanceMatchers.percentile(0, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> ResourcePerformanceMatchers.runsWithin());
+    }
+
+    @Test
+    void testAllocatesAtMost() {
+        long[] counter = new long[1];
+        assertThat(() -> counter[0]++, ResourcePerformanceMatchers.allocatesAtMost(16, 100, 100));
+
+        Matcher<Runnable> matcher = ResourcePerformanceMatchers.allocatesAtMost(1000, 100, 100);
+        Runnable allocating = () -> sink = new byte[10_000];
+        assertFalse(matcher.matches(allocating));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(allocating, description);
+        assertTrue(
+                description.toString().matches("allocated \\d+\\.\\d bytes on average and at most \\d+ bytes per run"
+                        + " \\(100 runs\\)"),
+                description.toString());
+        assertEquals(
+                "operation allocating at most 1000 bytes on average over 100 runs",
+                StringDescription.toString(matcher));
+    }
+
+    @Test
+    void testAllocatesAtMostWithResource() {
+        context.build().resource("/parent", "key", "value").resource("child");
+        Resource resource = context.resourceResolver().getResource("/parent");
+
+        assertThat(
+                resource,
+                Matchers.allOf(
+                        ResourceMatchers.props("key", "value"),
+                        ResourcePerformanceMatchers.allocatesAtMost(
+                                1_000_000, r -> sink = r.getChild("child").getValueMap())));
+        assertThat(
+                resource,
+                Matchers.not(ResourcePerformanceMatchers.allocatesAtMost(1000, r -> sink = new byte[10_000])));
+    }
+}
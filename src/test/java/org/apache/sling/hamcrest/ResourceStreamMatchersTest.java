@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.testing.mock.sling.junit5.SlingContext;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@ExtendWith(SlingContextExtension.class)
+class ResourceStreamMatchersTest {
+
+    private final SlingContext context = new SlingContext();
+
+    private List<Resource> list;
+
+    @BeforeEach
+    void setUp() {
+        list = List.of(
+                context.create().resource("/content/1"),
+                context.create().resource("/content/2"),
+                context.create().resource("/content/3"));
+    }
+
+    @Test
+    void testPaths() {
+        assertThat(list.stream(), ResourceStreamMatchers.paths("/content/1", "/content/2", "/content/3"));
+        assertThat(list.stream(), not(ResourceStreamMatchers.paths("/content/1", "/content/3", "/content/2")));
+
+        Matcher<Stream<Resource>> matcher = ResourceStreamMatchers.paths("/content/1", "/content/3");
+        Stream<Resource> items = list.stream();
+        assertFalse(matcher.matches(items));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(items, description);
+        assertEquals(
+                "item 1: was Resource with path \"/content/2\" (resource: <" + list.get(1)
+                        + ">), preceded by [\"/content/1\"]",
+                description.toString());
+    }
+
+    @Test
+    void testAllMatch() {
+        assertThat(list.stream(), ResourceStreamMatchers.allMatch(ResourceMatchers.isDescendantOf("/content")));
+        assertThat(list.stream(), not(ResourceStreamMatchers.allMatch(ResourceMatchers.pathUnder("/content/1"))));
+
+        Matcher<Stream<Resource>> matcher = ResourceStreamMatchers.allMatch(ResourceMatchers.path("/content/1"));
+        Stream<Resource> items = list.stream();
+        assertFalse(matcher.matches(items));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(items, description);
+        assertEquals(
+                "item 1: was Resource with path \"/content/2\" (resource: <" + list.get(1) + ">)",
+                description.toString());
+    }
+
+    @Test
+    void testAllMatchStopsAtFirstMismatch() {
+        AtomicInteger consumed = new AtomicInteger();
+        Stream<Resource> infinite = Stream.generate(() -> list.get(consumed.getAndIncrement() % 3));
+        assertThat(infinite, not(ResourceStreamMatchers.allMatch(ResourceMatchers.path("/content/1"))));
+        assertEquals(2, consumed.get());
+    }
+
+    @Test
+    void testAnyMatch() {
+        assertThat(list.stream(), ResourceStreamMatchers.anyMatch(ResourceMatchers.path("/content/2")));
+
+        Matcher<Stream<Resource>> matcher = ResourceStreamMatchers.anyMatch(ResourceMatchers.path("/content/4"));
+        Stream<Resource> items = list.stream();
+        assertFalse(matcher.matches(items));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(items, description);
+        assertEquals("none of 3 items matched", description.toString());
+    }
+
+    @Test
+    void testNoneMatch() {
+        assertThat(list.stream(), ResourceStreamMatchers.noneMatch(ResourceMatchers.hasDepth(1)));
+
+        Matcher<Stream<Resource>> matcher = ResourceStreamMatchers.noneMatch(ResourceMatchers.path("/content/3"));
+        Stream<Resource> items = list.stream();
+        assertFalse(matcher.matches(items));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(items, description);
+        assertEquals("item 2 matched: <" + list.get(2) + ">", description.toString());
+    }
+
+    @Test
+    void testInParallel() {
+        List<Resource> resources = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            resources.add(context.create().resource("/content/large/" + i));
+        }
+        assertThat(resources.stream(), ResourceStreamMatchers.allMatchInParallel(ResourceMatchers.hasDepth(3)));
+        assertThat(
+                resources.stream(),
+                ResourceStreamMatchers.anyMatchInParallel(ResourceMatchers.path("/content/large/9999")));
+        assertThat(resources.stream(), ResourceStreamMatchers.noneMatchInParallel(ResourceMatchers.hasDepth(2)));
+
+        Matcher<Stream<Resource>> matcher =
+                ResourceStreamMatchers.allMatchInParallel(ResourceMatchers.pathUnder("/content/large/5"));
+        Stream<Resource> items = resources.stream();
+        assertFalse(matcher.matches(items));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(items, description);
+        assertEquals(0, description.toString().indexOf("some item: was Resource with path "));
+
+        matcher = ResourceStreamMatchers.anyMatchInParallel(ResourceMatchers.hasDepth(2));
+        items = resources.stream();
+        assertFalse(matcher.matches(items));
+        description = new StringDescription();
+        matcher.describeMismatch(items, description);
+        assertEquals("no item matched", description.toString());
+    }
+}
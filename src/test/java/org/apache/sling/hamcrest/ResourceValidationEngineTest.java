@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sling.hamcrest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.testing.mock.sling.junit5.SlingContext;
+import org.apache.sling.testing.mock.sling.junit5.SlingContextExtension;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.Matchers;
+import org.hamcrest.TypeSafeMatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SlingContextExtension.class)
+class ResourceValidationEngineTest {
+
+    private final SlingContext context = new SlingContext();
+
+    private Resource root;
+
+    @BeforeEach
+    void setUp() {
+        root = context.create().resource("/content/site");
+        for (int i = 0; i < 20; i++) {
+            context.create().resource("/content/site/page" + i, "sling:resourceType", "site/page");
+            context.create().resource("/content/site/page" + i + "/jcr:content", "jcr:title", "Page " + i);
+            if (i % 5 == 0) {
+                context.create().resource("/content/site/page" + i + "/jcr:content/image");
+            }
+        }
+    }
+
+    @Test
+    void testValidate() {
+        List<MatchResult> violations = new ArrayList<>();
+        MatchReport report = ResourceValidationEngine.create()
+                .withPathRule("/content/site/[^/]+/jcr:content", ResourceMatchers.props("jcr:title", "Page 3"))
+                .withResourceTypeRule("site/page", ResourceMatchers.hasChildren("jcr:content"))
+                .validate(root, violations::add);
+
+        assertEquals(40, report.getResourceCount());
+        assertEquals(21, report.getPassedCount());
+        assertEquals(1, report.getMatcherStatistics().get(0).getPassedCount());
+        assertEquals(19, report.getMatcherStatistics().get(0).getFailedCount());
+        assertEquals(20, report.getMatcherStatistics().get(1).getPassedCount());
+        assertEquals(19, violations.size());
+        assertEquals("/content/site/page0/jcr:content", violations.get(0).getPath());
+        assertFalse(violations.get(0).isPassed());
+    }
+
+    @Test
+    void testValidateDocumentedRule() {
+        context.create().resource("/content/site/untitled/jcr:content");
+
+        List<MatchResult> violations = new ArrayList<>();
+        MatchReport report = ResourceValidationEngine.create()
+                .withPathRule(
+                        "/content/site/.+/jcr:content",
+                        ResourceMatchers.propsMatching(Map.of("jcr:title", Matchers.notNullValue())))
+                .validate(root, violations::add);
+
+        assertEquals(21, report.getResourceCount());
+        assertEquals(20, report.getPassedCount());
+        assertEquals(1, violations.size());
+        assertEquals("/content/site/untitled/jcr:content", violations.get(0).getPath());
+    }
+
+    @Test
+    void testValidateParallel() {
+        List<MatchResult> violations = new ArrayList<>();
+        MatchReport report = ResourceValidationEngine.create()
+                .withVirtualThreads()
+                .withPathRule(".*/image", ResourceMatchers.hasNoChildren())
+                .withResourceTypeRule("site/page", ResourceMatchers.hasChildCount(1))
+                .validate(root, violations::add);
+
+        assertEquals(24, report.getResourceCount());
+        assertEquals(24, report.getPassedCount());
+        assertTrue(report.isPassed());
+        assertTrue(violations.isEmpty());
+    }
+
+    @Test
+    void testMaxInFlight() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Matcher<Resource> slow = new TypeSafeMatcher<Resource>() {
+            @Override
+            protected boolean matchesSafely(Resource item) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return true;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("slow");
+            }
+        };
+        MatchReport report = ResourceValidationEngine.create()
+                .withPlatformThreads(4)
+                .withMaxInFlight(2)
+                .withPathRule(".*", slow)
+                .validate(root, violation -> {});
+
+        assertEquals(45, report.getResourceCount());
+        assertTrue(maxRunning.get() <= 2, "max running: " + maxRunning.get());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        ResourceValidationEngine engine = ResourceValidationEngine.create();
+        assertThrows(IllegalArgumentException.class, () -> engine.withPathRule("", ResourceMatchers.hasNoChildren()));
+        assertThrows(IllegalArgumentException.class, () -> engine.withResourceTypeRule("site/page", null));
+        assertThrows(IllegalArgumentException.class, () -> engine.withMaxInFlight(0));
+        assertThrows(IllegalArgumentException.class, () -> engine.withPlatformThreads(0));
+        assertThrows(IllegalStateException.class, () -> engine.validate(root, violation -> {}));
+    }
+}